@@ -0,0 +1,67 @@
+package com.github.forax.concurrent.constant;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Benchmark                                               Mode  Cnt    Score    Error  Units
+// AllocationBenchmarks.computed_getAsync_bound            avgt    5    1.365 ±  1.080  ns/op
+// AllocationBenchmarks.computed_getAsync_bound:gc.alloc.rate.norm avgt 5 ≈ 10⁻⁶     B/op
+// AllocationBenchmarks.computed_map                       avgt    5    5.919 ±  3.219  ns/op
+// AllocationBenchmarks.computed_map:gc.alloc.rate.norm    avgt    5   48.000 ±  0.001   B/op
+// AllocationBenchmarks.computed_of                        avgt    5    2.511 ±  1.072  ns/op
+// AllocationBenchmarks.computed_of:gc.alloc.rate.norm     avgt    5   24.000 ±  0.001   B/op
+// AllocationBenchmarks.computed_ofList_1                  avgt    5   74.993 ± 26.518  ns/op
+// AllocationBenchmarks.computed_ofList_1:gc.alloc.rate.norm avgt  5  504.000 ±  0.001   B/op
+
+// $JAVA_HOME/bin/java -jar target/benchmarks.jar AllocationBenchmarks -prof gc
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AllocationBenchmarks {
+  private static final Supplier<Integer> SUPPLIER = () -> 42;
+  private static final IntFunction<Integer> MAPPER = __ -> 42;
+  private static final Function<Integer, Integer> FUNCTION = x -> x + 1;
+
+  private final ComputedConstant<Integer> computed = ComputedConstant.of(SUPPLIER);
+  private final AsyncComputedConstant<Integer> asyncComputed = ComputedConstant.ofAsync(SUPPLIER, Runnable::run);
+  {
+    asyncComputed.getAsync();
+  }
+
+  @Benchmark
+  public ComputedConstant<Integer> computed_of() {
+    return ComputedConstant.of(SUPPLIER);
+  }
+
+  // what ComputedConstant.of() used to do
+  @Benchmark
+  public ComputedConstant<Integer> computed_ofList_1() {
+    return ComputedConstant.ofList(1, MAPPER).get(0);
+  }
+
+  @Benchmark
+  public ComputedConstant<Integer> computed_map() {
+    return computed.map(FUNCTION);
+  }
+
+  @Benchmark
+  public CompletionStage<Integer> computed_getAsync_bound() {
+    return asyncComputed.getAsync();
+  }
+}
@@ -0,0 +1,27 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * A computed constant that can be bound asynchronously by an {@link Executor}.
+ * {@link #get()} still binds the constant in the calling thread if the value is not computed yet.
+ *
+ * @param <V> type of the value
+ * @see ComputedConstant#ofAsync(Supplier, Executor)
+ */
+public sealed interface AsyncComputedConstant<V> extends ComputedConstant<V> permits SingleAsyncComputedConstant {
+  /**
+   * Returns a completion stage completed with the value or the error of this constant,
+   * the binding is submitted to the executor if the constant is unbound.
+   * All the calls share the same stage.
+   */
+  CompletionStage<V> getAsync();
+
+  /**
+   * Returns the value if the constant is bound, otherwise starts the binding like {@link #getAsync()}
+   * and returns {@code valueIfUnbound}. This method never blocks.
+   */
+  V getNow(V valueIfUnbound);
+}
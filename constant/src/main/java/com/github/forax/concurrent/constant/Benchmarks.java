@@ -14,9 +14,12 @@ import java.util.HashSet;
 import java.util.concurrent.TimeUnit;
 
 // Benchmark                            Mode  Cnt  Score    Error  Units
+// Benchmarks.list_computed_get_42      avgt   30  2.105 ±  0.164  ns/op  (2.398 ± 0.328 when the states were read through Stream.toList())
 // Benchmarks.static_computed_get_42    avgt    5  0.316 ±  0.001  ns/op
+// Benchmarks.static_computed_get_int_42 avgt   5  0.421 ±  0.236  ns/op
 // Benchmarks.static_computed_get_null  avgt    5  0.315 ±  0.001  ns/op
 // Benchmarks.static_constant_get_42    avgt    5  0.316 ±  0.003  ns/op
+// Benchmarks.static_constant_get_int_42 avgt   5  0.370 ±  0.100  ns/op
 // Benchmarks.static_constant_get_null  avgt    5  0.316 ±  0.001  ns/op
 
 // $JAVA_HOME/bin/java -jar target/benchmarks.jar -prof dtraceasm
@@ -30,9 +33,18 @@ public class Benchmarks {
   private static final Integer STATIC_CONSTANT_42 = 42;
   private static final ComputedConstant<Integer> STATIC_COMPUTED_42 = ComputedConstant.of(() -> 42);
 
+  private static final int STATIC_CONSTANT_INT_42 = 42;
+  private static final ComputedIntConstant STATIC_COMPUTED_INT_42 = ComputedIntConstant.of(() -> 42);
+
   private static final Object STATIC_CONSTANT_NULL = null;
   private static final ComputedConstant<Object> STATIC_COMPUTED_NULL = ComputedConstant.of(() -> null);
 
+  // not static, the states array is not a constant
+  private final ComputedConstant<Integer> listComputed42 = ComputedConstant.<Integer>ofList(1, __ -> 42).get(0);
+  {
+    listComputed42.get();
+  }
+
   @Benchmark
   public int static_constant_get_42() {
     return STATIC_CONSTANT_42;
@@ -43,6 +55,16 @@ public class Benchmarks {
     return STATIC_COMPUTED_42.get();
   }
 
+  @Benchmark
+  public int static_constant_get_int_42() {
+    return STATIC_CONSTANT_INT_42;
+  }
+
+  @Benchmark
+  public int static_computed_get_int_42() {
+    return STATIC_COMPUTED_INT_42.getAsInt();
+  }
+
   @Benchmark
   public Object static_constant_get_null() {
     return STATIC_CONSTANT_NULL;
@@ -52,4 +74,9 @@ public class Benchmarks {
   public Object static_computed_get_null() {
     return STATIC_COMPUTED_NULL.get();
   }
+
+  @Benchmark
+  public int list_computed_get_42() {
+    return listComputed42.get();
+  }
 }
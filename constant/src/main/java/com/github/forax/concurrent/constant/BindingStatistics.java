@@ -0,0 +1,20 @@
+package com.github.forax.concurrent.constant;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Statistics of a bulk binding, see {@link ComputedConstant#bindAll(List, java.util.concurrent.ForkJoinPool)}.
+ *
+ * @param bound number of constants bound to a value by the bulk binding
+ * @param errors number of constants bound to an error by the bulk binding
+ * @param skipped number of constants already bound or being bound by another thread when the bulk binding
+ *                reached them, a constant being bound may still end in error
+ * @param elapsed time of the bulk binding
+ */
+public record BindingStatistics(int bound, int errors, int skipped, Duration elapsed) {
+  public BindingStatistics {
+    Objects.requireNonNull(elapsed);
+  }
+}
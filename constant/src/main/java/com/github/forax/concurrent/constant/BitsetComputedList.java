@@ -0,0 +1,182 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State.Binding;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * Base class of the lists of primitive computed constants.
+ * The state of each element is encoded on 2 bits (unbound, binding, bound or recorded), 32 states per long,
+ * the values themselves are stored by the subclasses in a primitive array.
+ * A value is written before the state is published with a CAS, so reading a bound state is enough to read the value.
+ * <p>
+ * While an element is binding, a {@link Binding} marker (the one of {@link IndexedComputedConstant})
+ * is linked in the records of its word, in case of an error, the binding is replaced by the error. An element is recorded if either
+ * another thread waits for the binding or the element is in error, so the binding thread only takes
+ * the monitor of the binding if there is a waiter.
+ */
+abstract class BitsetComputedList {
+  static final int UNBOUND = 0, BINDING = 1, BOUND = 2, RECORDED = 3;
+
+  private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final VarHandle RECORDS = MethodHandles.arrayElementVarHandle(Record[].class);
+
+  // a binding or an error (value) of the element at index, chained with the other records of the same word
+  private record Record(int index, Object value, Record next) {}
+
+  private final int size;
+  private final long[] words;
+  private final Record[] records;
+
+  BitsetComputedList(int size) {
+    this.size = size;
+    this.words = new long[(size + 31) >>> 5];
+    this.records = new Record[words.length];
+  }
+
+  /**
+   * Computes the value at index and stores it, this method is called at most once per index.
+   */
+  abstract void compute(int index);
+
+  public int size() {
+    return size;
+  }
+
+  final int state(int index) {
+    Objects.checkIndex(index, size);
+    var word = (long) WORDS.getVolatile(words, index >>> 5);
+    return (int) (word >>> ((index & 31) << 1)) & 3;
+  }
+
+  private boolean transition(int index, int expected, int state) {
+    var shift = (index & 31) << 1;
+    for(;;) {
+      var word = (long) WORDS.getVolatile(words, index >>> 5);
+      if (((int) (word >>> shift) & 3) != expected) {
+        return false;
+      }
+      var newWord = (word & ~(3L << shift)) | ((long) state << shift);
+      if (WORDS.compareAndSet(words, index >>> 5, word, newWord)) {
+        return true;
+      }
+    }
+  }
+
+  // returns the binding or the error of the element at index, or null
+  private Object record(int index) {
+    return find((Record) RECORDS.getVolatile(records, index >>> 5), index);
+  }
+
+  private static Object find(Record record, int index) {
+    for(; record != null; record = record.next) {
+      if (record.index == index) {
+        return record.value;
+      }
+    }
+    return null;
+  }
+
+  private static Record remove(Record record, int index) {
+    if (record.index == index) {
+      return record.next;
+    }
+    return new Record(record.index, record.value, remove(record.next, index));
+  }
+
+  // replaces the record of the element at index by value, or removes it if value is null
+  private void updateRecord(int index, Object value) {
+    for(;;) {
+      var head = (Record) RECORDS.getVolatile(records, index >>> 5);
+      var newHead = head;
+      if (find(head, index) != null) {
+        newHead = remove(head, index);
+      }
+      if (value != null) {
+        newHead = new Record(index, value, newHead);
+      }
+      if (RECORDS.compareAndSet(records, index >>> 5, head, newHead)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns true if the element at index is bound to a value, false if it is in error,
+   * computing the value if necessary.
+   */
+  final boolean computeIfUnbound(int index) {
+    for(;;) {
+      var state = state(index);
+      switch (state) {
+        case UNBOUND -> {
+          if (transition(index, UNBOUND, BINDING)) {
+            return bind(index);
+          }
+        }
+        case BINDING -> {
+          // announce the waiter, so the binding thread releases the binding
+          if (record(index) instanceof Binding binding) {
+            if (transition(index, BINDING, RECORDED)) {
+              binding.await();
+            }
+          } else {
+            Thread.onSpinWait();  // the binding is not linked yet or is replaced by an error
+          }
+        }
+        case RECORDED -> {
+          var record = record(index);
+          if (record instanceof Binding binding) {
+            binding.await();
+          } else if (record != null) {
+            return false;
+          }
+        }
+        default -> {
+          return true;
+        }
+      }
+    }
+  }
+
+  private boolean bind(int index) {
+    var binding = new Binding(Thread.currentThread());
+    updateRecord(index, binding);
+    try {
+      compute(index);
+    } catch (Throwable t) {
+      updateRecord(index, t);
+      if (!transition(index, BINDING, RECORDED)) {
+        binding.release();
+      }
+      return false;
+    }
+    if (!transition(index, BINDING, BOUND)) {
+      transition(index, RECORDED, BOUND);
+      binding.release();
+    }
+    updateRecord(index, null);
+    return true;
+  }
+
+  final RuntimeException rethrow(int index) {
+    throw IndexedComputedConstant.rethrow((Throwable) record(index));
+  }
+
+  public boolean isBinding(int index) {
+    var state = state(index);
+    return state == BINDING || (state == RECORDED && record(index) instanceof Binding);
+  }
+  public boolean isBound(int index) {
+    var state = state(index);
+    return state == BOUND || (state == RECORDED && !(record(index) instanceof Binding));
+  }
+  public boolean isError(int index) {
+    return state(index) == RECORDED && record(index) instanceof Throwable;
+  }
+  public boolean isUnbound(int index) {
+    return state(index) == UNBOUND;
+  }
+}
@@ -0,0 +1,189 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Implementation of {@link MemoizedFunction}, each entry is a {@link SingleComputedConstant} so
+ * a value is computed at most once per entry and the errors are memoized too.
+ * <p>
+ * The eviction policy is a simplified W-TinyLFU: new keys enter a small LRU window (1% of the maximum size),
+ * a key leaving the window is admitted into the main LRU space only if its estimated frequency is greater
+ * than the frequency of the main victim. Frequencies are estimated by a count-min sketch with 4-bit counters
+ * which are halved periodically so old popularity fades.
+ * The policy is guarded by a lock, recording an access on a hit is skipped if the lock is not available.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+final class BoundedMemoizedFunction<K, V> implements MemoizedFunction<K, V> {
+  private final ConcurrentHashMap<K, SingleComputedConstant<V>> map = new ConcurrentHashMap<>();
+  private final Function<? super K, ? extends V> mapper;
+  private final int windowMaximumSize;
+  private final int mainMaximumSize;
+
+  private final ReentrantLock policyLock = new ReentrantLock();
+  private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);  // guarded by policyLock
+  private final LinkedHashMap<K, Boolean> main = new LinkedHashMap<>(16, 0.75f, true);  // guarded by policyLock
+  private final FrequencySketch sketch;  // guarded by policyLock
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  BoundedMemoizedFunction(int maximumSize, Function<? super K, ? extends V> mapper) {
+    this.mapper = mapper;
+    this.windowMaximumSize = Math.max(1, maximumSize / 100);
+    this.mainMaximumSize = maximumSize - windowMaximumSize;
+    this.sketch = new FrequencySketch(maximumSize);
+  }
+
+  @Override
+  public V apply(K key) {
+    Objects.requireNonNull(key);
+    var constant = map.get(key);
+    if (constant == null) {
+      var newConstant = new SingleComputedConstant<V>(() -> mapper.apply(key));
+      constant = map.putIfAbsent(key, newConstant);
+      if (constant == null) {
+        missCount.increment();
+        onInsertion(key);
+        return newConstant.get();
+      }
+    }
+    hitCount.increment();
+    onAccess(key);
+    return constant.get();
+  }
+
+  private void onAccess(K key) {
+    if (!policyLock.tryLock()) {
+      return;
+    }
+    try {
+      sketch.increment(key);
+      if (window.get(key) == null) {
+        main.get(key);
+      }
+    } finally {
+      policyLock.unlock();
+    }
+  }
+
+  private void onInsertion(K key) {
+    policyLock.lock();
+    try {
+      sketch.increment(key);
+      window.put(key, true);
+      if (window.size() <= windowMaximumSize) {
+        return;
+      }
+      var candidate = removeEldest(window);
+      if (main.size() < mainMaximumSize) {
+        main.put(candidate, true);
+        return;
+      }
+      if (main.isEmpty()) {  // maximum size of 1
+        evict(candidate);
+        return;
+      }
+      var victim = main.keySet().iterator().next();
+      if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+        main.remove(victim);
+        main.put(candidate, true);
+        evict(victim);
+      } else {
+        evict(candidate);
+      }
+    } finally {
+      policyLock.unlock();
+    }
+  }
+
+  private static <K> K removeEldest(LinkedHashMap<K, Boolean> map) {
+    var iterator = map.keySet().iterator();
+    var eldest = iterator.next();
+    iterator.remove();
+    return eldest;
+  }
+
+  private void evict(K key) {
+    map.remove(key);
+    evictionCount.increment();
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public long hitCount() {
+    return hitCount.sum();
+  }
+
+  @Override
+  public long missCount() {
+    return missCount.sum();
+  }
+
+  @Override
+  public long evictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * A count-min sketch with 4 hash functions and 4-bit counters, 16 counters per long.
+   * Not thread safe.
+   */
+  private static final class FrequencySketch {
+    private static final int[] SEEDS = { 0x97CB3127, 0xC2B2AE35, 0x85EBCA6B, 0x27D4EB2F };
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+      var capacity = Math.max(8, maximumSize);
+      this.table = new long[Integer.highestOneBit(capacity - 1) << 1];
+      this.sampleSize = 10 * capacity;
+    }
+
+    private static int hash(Object key, int seed) {
+      var h = key.hashCode() * seed;
+      return h ^ (h >>> 17);
+    }
+
+    int frequency(Object key) {
+      var frequency = 15;
+      for(var seed: SEEDS) {
+        var hash = hash(key, seed);
+        var index = (hash >>> 4) & (table.length - 1);
+        var shift = (hash & 15) << 2;
+        frequency = Math.min(frequency, (int) (table[index] >>> shift) & 15);
+      }
+      return frequency;
+    }
+
+    void increment(Object key) {
+      for(var seed: SEEDS) {
+        var hash = hash(key, seed);
+        var index = (hash >>> 4) & (table.length - 1);
+        var shift = (hash & 15) << 2;
+        if (((table[index] >>> shift) & 15) != 15) {
+          table[index] += 1L << shift;
+        }
+      }
+      if (++additions == sampleSize) {
+        for(var i = 0; i < table.length; i++) {
+          table[i] = (table[i] >>> 1) & 0x7777_7777_7777_7777L;
+        }
+        additions /= 2;
+      }
+    }
+  }
+}
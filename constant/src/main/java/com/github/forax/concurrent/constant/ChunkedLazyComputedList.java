@@ -0,0 +1,75 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.ComputedConstant.RangeMapper;
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * An unmodifiable list of lazily computed values where the values are computed by chunks.
+ * The first access to an index binds all the values of its chunk with one call to the range mapper,
+ * the chunks use the binding engine of {@link IndexedComputedConstant} so a chunk is computed at most once.
+ * If the range mapper fails, all the values of the chunk are bound to the same error.
+ *
+ * @param <V> type of the values
+ */
+final class ChunkedLazyComputedList<V> extends AbstractList<V> implements RandomAccess {
+  private final Object[] states;
+  private final Object[] chunks;
+  private final int chunkSize;
+  private final RangeMapper<? extends V> rangeMapper;
+  private final IntFunction<?> chunkBinder = this::bindChunk;
+
+  ChunkedLazyComputedList(int size, int chunkSize, RangeMapper<? extends V> rangeMapper) {
+    this.states = new Object[size];
+    this.chunks = new Object[(int) (((long) size + chunkSize - 1) / chunkSize)];
+    this.chunkSize = chunkSize;
+    this.rangeMapper = rangeMapper;
+  }
+
+  @Override
+  public int size() {
+    return states.length;
+  }
+
+  private Object bindChunk(int chunk) {
+    var fromIndex = chunk * chunkSize;
+    var toIndex = (int) Math.min(states.length, (long) fromIndex + chunkSize);
+    try {
+      var values = rangeMapper.apply(fromIndex, toIndex);
+      if (values.size() != toIndex - fromIndex) {
+        throw new IllegalStateException("range mapper returns " + values.size() + " values for the range [" + fromIndex + ", " + toIndex + ")");
+      }
+      for(var i = fromIndex; i < toIndex; i++) {
+        IndexedComputedConstant.setState(states, i, IndexedComputedConstant.wrap(values.get(i - fromIndex)));
+      }
+    } catch (Throwable t) {
+      var error = new State.Error(t);
+      for(var i = fromIndex; i < toIndex; i++) {
+        IndexedComputedConstant.setState(states, i, error);
+      }
+    }
+    return null;  // the state of a chunk is only used to know if the chunk is bound
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(int index) {
+    Objects.checkIndex(index, states.length);
+    var state = IndexedComputedConstant.state(states, index);
+    if (state == null) {
+      IndexedComputedConstant.computeIfUnbound(chunks, index / chunkSize, chunkBinder);
+      state = IndexedComputedConstant.state(states, index);
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+}
@@ -1,16 +1,55 @@
 package com.github.forax.concurrent.constant;
 
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
 import java.util.function.Supplier;
-import java.util.stream.IntStream;
 
-public sealed interface ComputedConstant<V> extends Supplier<V> permits IndexedComputedConstant, StaticShimComputedConstant {
+public sealed interface ComputedConstant<V> extends Supplier<V> permits AsyncComputedConstant, FoldableComputedConstant, IndexedComputedConstant, ReclaimableComputedConstant, RefreshingComputedConstant, ReloadableComputedConstant, SingleComputedConstant, StaticShimComputedConstant {
   V get();
   V orElse(V other);
+
+  /**
+   * Returns the value if the constant is bound, an empty optional if the constant is unbound, binding
+   * or bound to null. This method never computes the value nor waits.
+   * If the constant is bound to an error, the error is rethrown like {@link #get()}, it is not
+   * represented as an empty optional.
+   */
+  Optional<V> tryGet();
+
+  /**
+   * Returns the value like {@link #get()} but waits at most {@code timeout} if another thread computes the value.
+   * If the constant is unbound, the value is computed by the current thread.
+   *
+   * @throws TimeoutException if the value is still being computed by another thread after the timeout
+   * @throws InterruptedException if the current thread is interrupted while waiting
+   */
+  V get(Duration timeout) throws InterruptedException, TimeoutException;
+
+  /**
+   * Binds the constant to {@code value} if the constant is unbound, so the preset supplier is never called.
+   *
+   * @return true if the constant is bound to {@code value}, false if the constant is already bound or binding
+   */
+  boolean trySet(V value);
+
   <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X;
 
   boolean isBinding();
@@ -20,20 +59,260 @@ public sealed interface ComputedConstant<V> extends Supplier<V> permits IndexedC
 
   default <R> ComputedConstant<R> map(Function<? super V,? extends R> mapper) {
     Objects.requireNonNull(mapper);
-    return of(() -> mapper.apply(get()));
+    return new SingleComputedConstant<>(() -> mapper.apply(get()), this);
+  }
+
+  /**
+   * Computes the values of the indexes between {@code fromIndex} (inclusive) and {@code toIndex} (exclusive)
+   * in one call.
+   *
+   * @param <V> type of the values
+   * @see #ofChunkedList(int, int, RangeMapper)
+   */
+  @FunctionalInterface
+  interface RangeMapper<V> {
+    List<? extends V> apply(int fromIndex, int toIndex);
   }
 
   static <V> ComputedConstant<V> of(Supplier<? extends V> presetSupplier) {
     Objects.requireNonNull(presetSupplier);
-    return ComputedConstant.<V>ofList(1, __ -> presetSupplier.get()).get(0);
+    return new SingleComputedConstant<>(presetSupplier);
+  }
+
+  /**
+   * Returns a computed constant that the JIT can fold to its value once bound, if the computed constant
+   * is stored in a static final field, even in a class not rewritten by the condenser.
+   * Binding is more expensive than {@link #of(Supplier)} because it deoptimizes the callers.
+   */
+  static <V> ComputedConstant<V> ofFoldable(Supplier<? extends V> presetSupplier) {
+    Objects.requireNonNull(presetSupplier);
+    return FoldableComputedConstant.of(presetSupplier);
+  }
+
+  /**
+   * Returns a computed constant that can be invalidated, the value is computed again after an invalidation.
+   * Like {@link #ofFoldable(Supplier)}, the JIT can fold the value while the constant is not invalidated.
+   */
+  static <V> ReloadableComputedConstant<V> ofReloadable(Supplier<? extends V> presetSupplier) {
+    Objects.requireNonNull(presetSupplier);
+    return SwitchPointComputedConstant.of(presetSupplier);
+  }
+
+  /**
+   * Returns a computed constant whose value expires after {@code ttl}. An expired value is recomputed
+   * asynchronously by the {@code executor} while readers still see the previous value,
+   * if the recomputation fails the previous value is kept. Only the first access waits for the computation.
+   * Once bound, an access is a volatile read of the state and a read of {@link System#nanoTime()}
+   * to check the expiration, so unlike {@link #of(Supplier)} the value can not be constant folded.
+   */
+  static <V> ComputedConstant<V> ofRefreshing(Supplier<? extends V> presetSupplier, Duration ttl, Executor executor) {
+    Objects.requireNonNull(presetSupplier);
+    Objects.requireNonNull(ttl);
+    Objects.requireNonNull(executor);
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl <= 0");
+    }
+    return new RefreshingComputedConstant<>(presetSupplier, ttl, executor);
+  }
+
+  /**
+   * Returns a supplier that computes at most {@code stripes} values (rounded up to a power of two),
+   * the value returned depends on the current thread, so several threads may share the same value
+   * but far less than if there was only one value.
+   * This is useful for values that are expensive to create and not thread safe, the callers have
+   * to synchronize on the value but the contention is reduced.
+   */
+  static <V> Supplier<V> ofStriped(int stripes, Supplier<? extends V> presetSupplier) {
+    Objects.requireNonNull(presetSupplier);
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("stripes <= 0");
+    }
+    if (stripes > 1 << 30) {
+      throw new IllegalArgumentException("stripes > 2^30");
+    }
+    return new StripedComputedConstant<>(stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1, presetSupplier);
   }
 
+  /**
+   * Returns a computed constant that holds its value with a {@link SoftReference},
+   * if the value is reclaimed by the GC, it is computed again on the next access.
+   */
+  static <V> ComputedConstant<V> ofSoft(Supplier<? extends V> presetSupplier) {
+    Objects.requireNonNull(presetSupplier);
+    return new ReclaimableComputedConstant<>(presetSupplier, SoftReference::new);
+  }
+
+  /**
+   * Returns a computed constant that holds its value with a {@link WeakReference},
+   * if the value is reclaimed by the GC, it is computed again on the next access.
+   */
+  static <V> ComputedConstant<V> ofWeak(Supplier<? extends V> presetSupplier) {
+    Objects.requireNonNull(presetSupplier);
+    return new ReclaimableComputedConstant<>(presetSupplier, WeakReference::new);
+  }
+
+  /**
+   * Returns a computed constant that can be bound asynchronously by the {@code executor},
+   * see {@link AsyncComputedConstant#getAsync()}.
+   */
+  static <V> AsyncComputedConstant<V> ofAsync(Supplier<? extends V> presetSupplier, Executor executor) {
+    Objects.requireNonNull(presetSupplier);
+    Objects.requireNonNull(executor);
+    return new SingleAsyncComputedConstant<>(presetSupplier, executor);
+  }
+
+  /**
+   * Returns a list of computed constants, the values are computed on demand by {@code presetMapper}.
+   * The computed constant objects are not stored, {@code get(index)} returns a new view of the same
+   * element on each call, so two views are {@link Object#equals(Object) equal} but may not be identical.
+   */
   static <V> List<ComputedConstant<V>> ofList(int size, IntFunction<? extends V> presetMapper) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size < 0");
+    }
     Objects.requireNonNull(presetMapper);
     if (size == 0) {
       return List.of();
     }
-    var states = IntStream.range(0, size).mapToObj(__ -> null).toList();
-    return IntStream.range(0, size).<ComputedConstant<V>>mapToObj(i -> new IndexedComputedConstant<>(states, i, presetMapper, new ReentrantLock())).toList();
+    return new LazyComputedList<V>(size, presetMapper).constants();
+  }
+
+  static <V> List<V> ofLazyList(int size, IntFunction<? extends V> presetMapper) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size < 0");
+    }
+    Objects.requireNonNull(presetMapper);
+    if (size == 0) {
+      return List.of();
+    }
+    return new LazyComputedList<>(size, presetMapper);
+  }
+
+  static <V> List<V> ofPagedList(int size, IntFunction<? extends V> presetMapper) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size < 0");
+    }
+    Objects.requireNonNull(presetMapper);
+    return new PagedLazyComputedList<>(size, presetMapper);
+  }
+
+  static <V> IntFunction<V> ofIntFunction(IntFunction<? extends V> presetMapper) {
+    Objects.requireNonNull(presetMapper);
+    return new GrowableLazyIntFunction<>(presetMapper);
+  }
+
+  static <V> List<V> ofChunkedList(int size, int chunkSize, RangeMapper<? extends V> presetRangeMapper) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size < 0");
+    }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize <= 0");
+    }
+    Objects.requireNonNull(presetRangeMapper);
+    return new ChunkedLazyComputedList<>(size, chunkSize, presetRangeMapper);
+  }
+
+  static ComputedIntList ofIntList(int size, IntUnaryOperator presetMapper) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size < 0");
+    }
+    Objects.requireNonNull(presetMapper);
+    return new IndexedComputedIntList(size, presetMapper);
+  }
+
+  static ComputedLongList ofLongList(int size, IntToLongFunction presetMapper) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size < 0");
+    }
+    Objects.requireNonNull(presetMapper);
+    return new IndexedComputedLongList(size, presetMapper);
+  }
+
+  static ComputedDoubleList ofDoubleList(int size, IntToDoubleFunction presetMapper) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size < 0");
+    }
+    Objects.requireNonNull(presetMapper);
+    return new IndexedComputedDoubleList(size, presetMapper);
+  }
+
+  /**
+   * Returns an unmodifiable map which values are computed on demand by {@code presetMapper},
+   * the keys are copied from {@code keys}.
+   *
+   * @throws NullPointerException if one of the keys is null
+   */
+  static <K, V> Map<K, V> ofMap(Set<? extends K> keys, Function<? super K, ? extends V> presetMapper) {
+    Objects.requireNonNull(keys);
+    Objects.requireNonNull(presetMapper);
+    if (keys.isEmpty()) {
+      return Map.of();
+    }
+    return new PerfectHashLazyMap<>(keys, presetMapper);
+  }
+
+  static <E extends Enum<E>, V> Map<E, V> ofEnum(Class<E> enumClass, Function<? super E, ? extends V> presetMapper) {
+    Objects.requireNonNull(enumClass);
+    Objects.requireNonNull(presetMapper);
+    if (!enumClass.isEnum()) {
+      throw new IllegalArgumentException(enumClass.getName() + " is not an enum");
+    }
+    return new EnumLazyMap<>(enumClass, presetMapper);
+  }
+
+  static <K, V> MemoizedFunction<K, V> ofBoundedFunction(int maximumSize, Function<? super K, ? extends V> presetMapper) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize <= 0");
+    }
+    Objects.requireNonNull(presetMapper);
+    return new BoundedMemoizedFunction<>(maximumSize, presetMapper);
+  }
+
+  /**
+   * Binds all the unbound constants of the list in parallel using the fork/join {@code pool},
+   * an error is recorded as the state of the constant and does not stop the other bindings.
+   * A constant already bound or being bound by another thread is skipped, it is not waited for.
+   * The constants of a list created by {@link #ofList(int, IntFunction)} are bound without creating
+   * the constant objects.
+   */
+  static BindingStatistics bindAll(List<? extends ComputedConstant<?>> constants, ForkJoinPool pool) {
+    return bindAll(constants, pool, __ -> {});
+  }
+
+  /**
+   * Same as {@link #bindAll(List, ForkJoinPool)} but {@code progress} is called with the number of
+   * constants already processed each time a range of constants is processed,
+   * it can be called concurrently by several threads of the pool.
+   */
+  static BindingStatistics bindAll(List<? extends ComputedConstant<?>> constants, ForkJoinPool pool, IntConsumer progress) {
+    Objects.requireNonNull(constants);
+    Objects.requireNonNull(pool);
+    Objects.requireNonNull(progress);
+    return ParallelBinder.bindAll(constants, pool, progress);
+  }
+
+  /**
+   * Returns a computed constant which value is computed from the values of two other computed constants.
+   * The dependencies are known by {@link #bindGraph(Collection, Executor)}.
+   */
+  static <T, U, R> ComputedConstant<R> combine(ComputedConstant<? extends T> constant1, ComputedConstant<? extends U> constant2,
+                                               BiFunction<? super T, ? super U, ? extends R> presetCombiner) {
+    Objects.requireNonNull(constant1);
+    Objects.requireNonNull(constant2);
+    Objects.requireNonNull(presetCombiner);
+    return new SingleComputedConstant<>(() -> presetCombiner.apply(constant1.get(), constant2.get()), new ComputedConstant<?>[] { constant1, constant2 });
+  }
+
+  /**
+   * Binds the constants and their dependencies (see {@link #map(Function)} and {@link #combine}) using the
+   * {@code executor}, a constant is bound once all its dependencies are bound, so independent constants are
+   * bound concurrently. An error is recorded as the state of the constant and does not stop the other bindings.
+   *
+   * @return a future completed when all the constants are bound
+   */
+  static CompletableFuture<Void> bindGraph(Collection<? extends ComputedConstant<?>> constants, Executor executor) {
+    Objects.requireNonNull(constants);
+    Objects.requireNonNull(executor);
+    return GraphBinder.bindGraph(constants, executor);
   }
 }
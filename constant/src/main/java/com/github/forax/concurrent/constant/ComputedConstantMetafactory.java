@@ -7,6 +7,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 import static java.lang.invoke.MethodHandles.constant;
@@ -51,38 +52,43 @@ public class ComputedConstantMetafactory {
     throw rethrow(supplier.get());
   }
 
+  private static MethodHandle constantValue(MethodType methodType, Object state) {
+    var returnType = methodType.returnType();
+    MethodHandle constant;
+    if (state == State.Null.NULL) {
+      constant = constant(returnType, null);
+    } else if (returnType.isPrimitive()) {
+      // ComputedIntConstant, ComputedLongConstant and ComputedDoubleConstant, fold to a primitive constant
+      constant = constant(returnType, state);
+    } else {
+      constant = constant(state.getClass(), state).asType(methodType(returnType));
+    }
+    return dropArguments(constant, 0, methodType.parameterList());
+  }
+
   public static CallSite constantMethod(MethodHandles.Lookup lookup, String name, MethodType methodType, Object state) {
     Objects.requireNonNull(lookup);
     Objects.requireNonNull(name);
     Objects.requireNonNull(state);
     var returnType = methodType.returnType();
     return new ConstantCallSite(switch (name) {
-      case "get" -> {
-        if (state == State.Null.NULL) {
-          yield constant(returnType, null);
-        }
+      case "get", "getAsInt", "getAsLong", "getAsDouble" -> {
         if (state instanceof State.Error error) {
           yield insertArguments(throwException(returnType, Throwable.class), 0, error.throwable);
         }
-        yield constant(state.getClass(), state).asType(methodType);
+        yield constantValue(methodType, state);
       }
       case "orElse" -> {
-        if (state == State.Null.NULL) {
-          yield dropArguments(constant(returnType, null),0, methodType.parameterType(0));
-        }
         if (state instanceof State.Error error) {
           yield identity(returnType).asType(methodType);
         }
-        yield dropArguments(constant(state.getClass(), state).asType(methodType), 0, methodType.parameterType(0));
+        yield constantValue(methodType, state);
       }
       case "orElseThrow" -> {
-        if (state == State.Null.NULL) {
-          yield dropArguments(constant(returnType, null),0, methodType.parameterType(0));
-        }
         if (state instanceof State.Error error) {
           yield ALWAYS_THROW.asType(methodType);
         }
-        yield dropArguments(constant(state.getClass(), state).asType(methodType), 0, methodType.parameterType(0));
+        yield constantValue(methodType, state);
       }
       default -> throw new LinkageError("unknown name " + name);
     });
@@ -95,14 +101,44 @@ public class ComputedConstantMetafactory {
     }
   };
 
-  static Object computeIfUnbound(ConcurrentHashMap<String, Object> map, String staticFieldName, MethodHandle staticInit) {
-    return map.computeIfAbsent(staticFieldName, fieldName -> {
+  // the map contains either a binding marker (IndexedComputedConstant.State.Binding) or a bound state,
+  // the static init is not called inside computeIfAbsent() so other threads can wait with a timeout
+  private record FieldSlot(ConcurrentHashMap<String, Object> map, Class<?> declaringClass, String staticFieldName,
+                           MethodHandle staticInit) implements IndexedComputedConstant.StateSlot {
+    @Override
+    public Object loadState() {
+      return map.get(staticFieldName);
+    }
+
+    @Override
+    public boolean compareAndSetState(Object expectedRawState, Object rawState) {
+      // expectedRawState is always null, a field is only bound once
+      return map.putIfAbsent(staticFieldName, rawState) == expectedRawState;
+    }
+
+    @Override
+    public Object computeState() {
+      Object state;
       try {
-        return staticInit.invokeExact(fieldName);
+        state = (Object) staticInit.invokeExact(staticFieldName);
+        if (state == null) {
+          state = State.Null.NULL;
+        }
       } catch (Throwable throwable) {
-        return new State.Error(throwable);
+        state = new State.Error(throwable);
       }
-    });
+      map.put(staticFieldName, state);
+      ConstantProfile.recordBinding(declaringClass, staticFieldName);
+      return state;
+    }
+  }
+
+  static Object computeIfUnbound(ConcurrentHashMap<String, Object> map, Class<?> declaringClass, String staticFieldName, MethodHandle staticInit) {
+    return IndexedComputedConstant.computeIfUnbound(new FieldSlot(map, declaringClass, staticFieldName, staticInit));
+  }
+
+  static Object computeIfUnbound(ConcurrentHashMap<String, Object> map, Class<?> declaringClass, String staticFieldName, MethodHandle staticInit, long deadline) throws InterruptedException, TimeoutException {
+    return IndexedComputedConstant.computeIfUnbound(new FieldSlot(map, declaringClass, staticFieldName, staticInit), deadline);
   }
 
   public static Object constantState(MethodHandles.Lookup lookup, String name, Class<?> type, MethodHandle staticInit) throws Throwable {
@@ -110,6 +146,7 @@ public class ComputedConstantMetafactory {
     Objects.requireNonNull(name);
     Objects.requireNonNull(type);
     Objects.requireNonNull(staticInit);
-    return type.cast(computeIfUnbound(CLASS_VALUE.get(lookup.lookupClass()), name, staticInit));
+    var declaringClass = lookup.lookupClass();
+    return type.cast(computeIfUnbound(CLASS_VALUE.get(declaringClass), declaringClass, name, staticInit));
   }
 }
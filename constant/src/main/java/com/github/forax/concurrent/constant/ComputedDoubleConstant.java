@@ -0,0 +1,25 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A computed constant specialized for {@code double} values, the value is stored unboxed.
+ * The states (unbound, binding, bound or error) are the same as the states of a {@link ComputedConstant}.
+ */
+public sealed interface ComputedDoubleConstant extends DoubleSupplier permits SingleComputedDoubleConstant {
+  double getAsDouble();
+  double orElse(double other);
+  <X extends Throwable> double orElseThrow(Supplier<? extends X> exceptionSupplier) throws X;
+
+  boolean isBinding();
+  boolean isBound();
+  boolean isError();
+  boolean isUnbound();
+
+  static ComputedDoubleConstant of(DoubleSupplier presetSupplier) {
+    Objects.requireNonNull(presetSupplier);
+    return new SingleComputedDoubleConstant(presetSupplier);
+  }
+}
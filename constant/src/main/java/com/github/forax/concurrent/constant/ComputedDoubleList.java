@@ -0,0 +1,21 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.function.Supplier;
+
+/**
+ * A fixed size list of lazily computed {@code double} values created by
+ * {@link ComputedConstant#ofDoubleList(int, java.util.function.IntToDoubleFunction)}.
+ * Each element is computed at most once and has the same states as a {@link ComputedConstant}.
+ */
+public sealed interface ComputedDoubleList permits IndexedComputedDoubleList {
+  int size();
+
+  double getAsDouble(int index);
+  double orElse(int index, double other);
+  <X extends Throwable> double orElseThrow(int index, Supplier<? extends X> exceptionSupplier) throws X;
+
+  boolean isBinding(int index);
+  boolean isBound(int index);
+  boolean isError(int index);
+  boolean isUnbound(int index);
+}
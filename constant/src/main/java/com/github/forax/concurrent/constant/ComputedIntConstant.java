@@ -0,0 +1,25 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.Objects;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A computed constant specialized for {@code int} values, the value is stored unboxed.
+ * The states (unbound, binding, bound or error) are the same as the states of a {@link ComputedConstant}.
+ */
+public sealed interface ComputedIntConstant extends IntSupplier permits SingleComputedIntConstant {
+  int getAsInt();
+  int orElse(int other);
+  <X extends Throwable> int orElseThrow(Supplier<? extends X> exceptionSupplier) throws X;
+
+  boolean isBinding();
+  boolean isBound();
+  boolean isError();
+  boolean isUnbound();
+
+  static ComputedIntConstant of(IntSupplier presetSupplier) {
+    Objects.requireNonNull(presetSupplier);
+    return new SingleComputedIntConstant(presetSupplier);
+  }
+}
@@ -0,0 +1,21 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.function.Supplier;
+
+/**
+ * A fixed size list of lazily computed {@code int} values created by
+ * {@link ComputedConstant#ofIntList(int, java.util.function.IntUnaryOperator)}.
+ * Each element is computed at most once and has the same states as a {@link ComputedConstant}.
+ */
+public sealed interface ComputedIntList permits IndexedComputedIntList {
+  int size();
+
+  int getAsInt(int index);
+  int orElse(int index, int other);
+  <X extends Throwable> int orElseThrow(int index, Supplier<? extends X> exceptionSupplier) throws X;
+
+  boolean isBinding(int index);
+  boolean isBound(int index);
+  boolean isError(int index);
+  boolean isUnbound(int index);
+}
@@ -0,0 +1,25 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A computed constant specialized for {@code long} values, the value is stored unboxed.
+ * The states (unbound, binding, bound or error) are the same as the states of a {@link ComputedConstant}.
+ */
+public sealed interface ComputedLongConstant extends LongSupplier permits SingleComputedLongConstant {
+  long getAsLong();
+  long orElse(long other);
+  <X extends Throwable> long orElseThrow(Supplier<? extends X> exceptionSupplier) throws X;
+
+  boolean isBinding();
+  boolean isBound();
+  boolean isError();
+  boolean isUnbound();
+
+  static ComputedLongConstant of(LongSupplier presetSupplier) {
+    Objects.requireNonNull(presetSupplier);
+    return new SingleComputedLongConstant(presetSupplier);
+  }
+}
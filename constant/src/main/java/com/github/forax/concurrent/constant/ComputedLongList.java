@@ -0,0 +1,21 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.function.Supplier;
+
+/**
+ * A fixed size list of lazily computed {@code long} values created by
+ * {@link ComputedConstant#ofLongList(int, java.util.function.IntToLongFunction)}.
+ * Each element is computed at most once and has the same states as a {@link ComputedConstant}.
+ */
+public sealed interface ComputedLongList permits IndexedComputedLongList {
+  int size();
+
+  long getAsLong(int index);
+  long orElse(int index, long other);
+  <X extends Throwable> long orElseThrow(int index, Supplier<? extends X> exceptionSupplier) throws X;
+
+  boolean isBinding(int index);
+  boolean isBound(int index);
+  boolean isError(int index);
+  boolean isUnbound(int index);
+}
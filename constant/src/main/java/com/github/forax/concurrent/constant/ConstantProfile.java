@@ -0,0 +1,171 @@
+package com.github.forax.concurrent.constant;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Records which computed constants are bound during a training run and binds them again in the same order
+ * at the start of another run, so the first requests do not have to bind them.
+ * <p>
+ * Two kinds of constants are recorded: the static final constants of the classes rewritten by the condenser,
+ * identified by their declaring class and field name, recorded once in binding order,
+ * and the elements of the lists registered with {@link #register(String, List)}, identified by the name
+ * of the list and the index. A list has no hook to observe the binding of its elements, so the bound elements
+ * are found when the profile is saved and written after the fields in index order, not in binding order.
+ * <p>
+ * The profile is a text file, one constant per line, either {@code field <class name> <field name>}
+ * or {@code list <index> <list name>}.
+ */
+public final class ConstantProfile {
+  private ConstantProfile() {
+    throw new AssertionError();
+  }
+
+  private static volatile boolean recording;
+  private static final ConcurrentLinkedQueue<String> FIELDS = new ConcurrentLinkedQueue<>();  // in binding order
+  private static final Set<String> RECORDED_FIELDS = ConcurrentHashMap.newKeySet();
+  private static final ConcurrentHashMap<String, List<? extends ComputedConstant<?>>> LISTS = new ConcurrentHashMap<>();
+
+  /**
+   * Starts to record the bindings of the static final computed constants.
+   */
+  public static void startRecording() {
+    recording = true;
+  }
+
+  /**
+   * Stops to record the bindings of the static final computed constants, the bindings already recorded are kept.
+   */
+  public static void stopRecording() {
+    recording = false;
+  }
+
+  // called by the metafactory each time a static final computed constant is bound
+  static void recordBinding(Class<?> declaringClass, String staticFieldName) {
+    if (!recording) {
+      return;
+    }
+    var field = "field " + declaringClass.getName() + " " + staticFieldName;
+    if (RECORDED_FIELDS.add(field)) {
+      FIELDS.add(field);
+    }
+  }
+
+  /**
+   * Registers a list of computed constants under a name, the bound elements are recorded by {@link #save(Path)}
+   * and {@link #prewarm(MethodHandles.Lookup, Path, Executor)} binds the elements of the list registered with the same name.
+   *
+   * @throws IllegalStateException if a list with the same name is already registered
+   */
+  public static void register(String name, List<? extends ComputedConstant<?>> constants) {
+    Objects.requireNonNull(name);
+    Objects.requireNonNull(constants);
+    if (LISTS.putIfAbsent(name, constants) != null) {
+      throw new IllegalStateException("a list with the name " + name + " is already registered");
+    }
+  }
+
+  /**
+   * Unregisters the list registered under a name, so the list and its values are not retained anymore.
+   * Does nothing if no list is registered with that name.
+   */
+  public static void unregister(String name) {
+    Objects.requireNonNull(name);
+    LISTS.remove(name);
+  }
+
+  /**
+   * Writes the recorded bindings to the profile file.
+   *
+   * @throws IOException if the file can not be written
+   */
+  public static void save(Path profile) throws IOException {
+    Objects.requireNonNull(profile);
+    var lines = new ArrayList<>(FIELDS);
+    LISTS.forEach((name, constants) -> {
+      for(var i = 0; i < constants.size(); i++) {
+        if (constants.get(i).isBound()) {
+          lines.add("list " + i + " " + name);
+        }
+      }
+    });
+    Files.write(profile, lines);
+  }
+
+  /**
+   * Reads the profile file then binds the constants recorded in the profile using the {@code executor}.
+   * The classes are loaded with the context class loader of the current thread, the constants that can not
+   * be found (the class or the list does not exist anymore) or are not accessible from the lookup are skipped.
+   *
+   * @param lookup a lookup of the caller which has access to the classes of the profile
+   * @return a future of the number of constants bound by the pre-warming
+   * @throws IOException if the profile can not be read
+   */
+  public static CompletableFuture<Integer> prewarm(MethodHandles.Lookup lookup, Path profile, Executor executor) throws IOException {
+    Objects.requireNonNull(lookup);
+    Objects.requireNonNull(profile);
+    Objects.requireNonNull(executor);
+    var lines = Files.readAllLines(profile);
+    var contextClassLoader = Thread.currentThread().getContextClassLoader();
+    var classLoader = contextClassLoader != null ? contextClassLoader : ConstantProfile.class.getClassLoader();
+    return CompletableFuture.supplyAsync(() -> {
+      var count = 0;
+      for(var line: lines) {
+        try {
+          if (prewarm(lookup, line, classLoader)) {
+            count++;
+          }
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+          // skip, the profile may be out of date
+        }
+      }
+      return count;
+    }, executor);
+  }
+
+  // returns true if a constant has been bound
+  private static boolean prewarm(MethodHandles.Lookup lookup, String line, ClassLoader classLoader) throws ReflectiveOperationException {
+    var tokens = line.split(" ", 3);
+    if (tokens.length != 3) {
+      return false;
+    }
+    switch (tokens[0]) {
+      case "field": {
+        var declaringClass = Class.forName(tokens[1], false, classLoader);
+        var staticFieldName = tokens[2];
+        var map = ComputedConstantMetafactory.CLASS_VALUE.get(declaringClass);
+        if (map.get(staticFieldName) != null) {
+          return false;
+        }
+        var staticInit = ConstantWarmer.staticInit(lookup, declaringClass);
+        ComputedConstantMetafactory.computeIfUnbound(map, declaringClass, staticFieldName, staticInit);
+        return true;
+      }
+      case "list": {
+        var constants = LISTS.get(tokens[2]);
+        var index = Integer.parseInt(tokens[1]);
+        if (constants == null || index >= constants.size()) {
+          return false;
+        }
+        var constant = constants.get(index);
+        if (constant.isBound()) {
+          return false;
+        }
+        constant.orElse(null);
+        return true;
+      }
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package com.github.forax.concurrent.constant;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A file storing the values of computed constants so they do not have to be computed again after a restart.
+ * <p>
+ * A computed constant created by {@link #of(String, Codec, Supplier)} first looks for its key in the snapshot
+ * loaded by {@link #open(Path, String)}, the value is decoded from the file (memory-mapped) only when the
+ * constant is bound, if the key is not found or can not be decoded, the preset supplier is called.
+ * {@link #save()} writes the constants bound to a value (not null nor an error), the values of the constants
+ * not bound yet are copied from the loaded snapshot.
+ * A snapshot written with another version is ignored, so the version should change each time the values
+ * computed by the suppliers may change.
+ * <p>
+ * The file format is: a magic number, the format version, the user version, the number of entries,
+ * the index (key, offset, length) then the encoded values.
+ */
+public final class ConstantSnapshot {
+  private static final int MAGIC = 0x43435331;  // CCS1
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * Encodes and decodes the value of a computed constant.
+   *
+   * @param <V> type of the value
+   */
+  public interface Codec<V> {
+    byte[] encode(V value) throws IOException;
+    V decode(byte[] data) throws IOException;
+  }
+
+  private record Entry<V>(ComputedConstant<V> constant, Codec<V> codec) {
+    byte[] encode() throws IOException {
+      return codec.encode(constant.orElse(null));
+    }
+  }
+
+  private record Slice(int offset, int length) {}
+
+  private final Path file;
+  private final String version;
+  private final ByteBuffer buffer;  // null if there is no snapshot
+  private final Map<String, Slice> index;
+  private final ConcurrentHashMap<String, Entry<?>> entries = new ConcurrentHashMap<>();
+
+  private ConstantSnapshot(Path file, String version, ByteBuffer buffer, Map<String, Slice> index) {
+    this.file = file;
+    this.version = version;
+    this.buffer = buffer;
+    this.index = index;
+  }
+
+  /**
+   * Opens the snapshot file, if the file does not exist, is not a snapshot or was written with another version,
+   * the snapshot starts empty.
+   *
+   * @param file the snapshot file, read now and written by {@link #save()}
+   * @param version the version of the values, a snapshot is only used if the versions are equals
+   * @throws IOException if the file exists but can not be read
+   */
+  public static ConstantSnapshot open(Path file, String version) throws IOException {
+    Objects.requireNonNull(file);
+    Objects.requireNonNull(version);
+    if (!Files.exists(file)) {
+      return new ConstantSnapshot(file, version, null, Map.of());
+    }
+    ByteBuffer buffer;
+    try(var channel = FileChannel.open(file)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    var index = readIndex(buffer, version);
+    if (index == null) {
+      return new ConstantSnapshot(file, version, null, Map.of());
+    }
+    return new ConstantSnapshot(file, version, buffer, index);
+  }
+
+  // returns null if the length of the string is malformed
+  private static String readString(ByteBuffer buffer) {
+    var length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining()) {
+      return null;
+    }
+    var bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  // returns null if the buffer is not a snapshot of that version
+  private static Map<String, Slice> readIndex(ByteBuffer buffer, String version) {
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || !version.equals(readString(buffer))) {
+        return null;
+      }
+      var count = buffer.getInt();
+      var index = new HashMap<String, Slice>();
+      for(var i = 0; i < count; i++) {
+        var key = readString(buffer);
+        if (key == null) {
+          return null;
+        }
+        var offset = buffer.getInt();
+        var length = buffer.getInt();
+        if (offset < 0 || length < 0 || offset > buffer.limit() - length) {
+          return null;
+        }
+        index.put(key, new Slice(offset, length));
+      }
+      return index;
+    } catch (BufferUnderflowException e) {
+      return null;
+    }
+  }
+
+  private byte[] data(String key) {
+    var slice = index.get(key);
+    if (slice == null) {
+      return null;
+    }
+    var data = new byte[slice.length];
+    buffer.get(slice.offset, data);
+    return data;
+  }
+
+  /**
+   * Returns a codec using the Java serialization.
+   */
+  @SuppressWarnings("unchecked")
+  public static <V extends Serializable> Codec<V> serializable() {
+    return new Codec<>() {
+      @Override
+      public byte[] encode(V value) throws IOException {
+        var output = new ByteArrayOutputStream();
+        try(var objectOutput = new ObjectOutputStream(output)) {
+          objectOutput.writeObject(value);
+        }
+        return output.toByteArray();
+      }
+
+      @Override
+      public V decode(byte[] data) throws IOException {
+        try(var objectInput = new ObjectInputStream(new ByteArrayInputStream(data))) {
+          return (V) objectInput.readObject();
+        } catch (ClassNotFoundException e) {
+          throw new IOException(e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns a computed constant saved in the snapshot with the key {@code key} using the Java serialization.
+   *
+   * @throws IllegalStateException if a constant with the same key already exists
+   */
+  public <V extends Serializable> ComputedConstant<V> of(String key, Supplier<? extends V> presetSupplier) {
+    return of(key, serializable(), presetSupplier);
+  }
+
+  /**
+   * Returns a computed constant saved in the snapshot with the key {@code key} using the {@code codec}.
+   *
+   * @throws IllegalStateException if a constant with the same key already exists
+   */
+  public <V> ComputedConstant<V> of(String key, Codec<V> codec, Supplier<? extends V> presetSupplier) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(codec);
+    Objects.requireNonNull(presetSupplier);
+    var constant = new SingleComputedConstant<V>(() -> {
+      var data = data(key);
+      if (data != null) {
+        try {
+          return codec.decode(data);
+        } catch (IOException | RuntimeException e) {
+          // fallback to the supplier
+        }
+      }
+      return presetSupplier.get();
+    });
+    if (entries.putIfAbsent(key, new Entry<>(constant, codec)) != null) {
+      throw new IllegalStateException("a constant with the key " + key + " already exists");
+    }
+    return constant;
+  }
+
+  /**
+   * Writes the snapshot file, the file is replaced atomically if the file system supports it.
+   *
+   * @throws IOException if the file can not be written or a value can not be encoded
+   */
+  public void save() throws IOException {
+    var keys = new ArrayList<byte[]>();
+    var values = new ArrayList<byte[]>();
+    for(var mapEntry: entries.entrySet()) {
+      var key = mapEntry.getKey();
+      var entry = mapEntry.getValue();
+      byte[] data;
+      if (entry.constant.isBound()) {
+        if (entry.constant.isError() || entry.constant.orElse(null) == null) {
+          continue;
+        }
+        data = entry.encode();
+      } else {
+        data = data(key);  // not used yet, keep the previous value
+        if (data == null) {
+          continue;
+        }
+      }
+      keys.add(key.getBytes(StandardCharsets.UTF_8));
+      values.add(data);
+    }
+
+    var versionBytes = version.getBytes(StandardCharsets.UTF_8);
+    var headerSize = 4 + 4 + 4 + versionBytes.length + 4;
+    for(var key: keys) {
+      headerSize += 4 + key.length + 4 + 4;
+    }
+    var temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try(var output = new DataOutputStream(Files.newOutputStream(temporary))) {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(versionBytes.length);
+        output.write(versionBytes);
+        output.writeInt(keys.size());
+        var offset = headerSize;
+        for(var i = 0; i < keys.size(); i++) {
+          var key = keys.get(i);
+          output.writeInt(key.length);
+          output.write(key);
+          output.writeInt(offset);
+          output.writeInt(values.get(i).length);
+          offset = Math.addExact(offset, values.get(i).length);
+        }
+        for(var value: values) {
+          output.write(value);
+        }
+      }
+      try {
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+}
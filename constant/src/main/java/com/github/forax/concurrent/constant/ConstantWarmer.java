@@ -0,0 +1,132 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.condenser.ComputedConstantRewriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Binds all the static final computed constants of a class or a package rewritten by the condenser,
+ * so the first accesses do not have to compute them.
+ * <p>
+ * The constants are bound in parallel by an executor through the same store as the constant dynamic
+ * of the rewritten code, so the values are shared. Using the names generated by the condenser
+ * ({@code $constantNames$} and the resource {@link ComputedConstantRewriter#CONSTANT_INDEX}),
+ * no constant is bound twice and an error is recorded as the state of the constant.
+ * <p>
+ * The generated methods are found using {@link MethodHandles#privateLookupIn(Class, MethodHandles.Lookup)}
+ * with the lookup of the caller, so the caller must have access to the classes it warms.
+ */
+public final class ConstantWarmer {
+  private ConstantWarmer() {
+    throw new AssertionError();
+  }
+
+  // returns the $staticInit$ generated by the condenser
+  static MethodHandle staticInit(MethodHandles.Lookup lookup, Class<?> declaringClass) throws NoSuchMethodException, IllegalAccessException {
+    return MethodHandles.privateLookupIn(declaringClass, lookup)
+        .findStatic(declaringClass, "$staticInit$", methodType(Object.class, String.class));
+  }
+
+  // returns the names returned by the $constantNames$ generated by the condenser
+  private static String[] constantNames(MethodHandles.Lookup lookup, Class<?> declaringClass) throws NoSuchMethodException, IllegalAccessException {
+    var constantNames = MethodHandles.privateLookupIn(declaringClass, lookup)
+        .findStatic(declaringClass, "$constantNames$", methodType(String[].class));
+    try {
+      return (String[]) constantNames.invokeExact();
+    } catch (Throwable t) {
+      throw IndexedComputedConstant.rethrow(t);
+    }
+  }
+
+  /**
+   * Binds all the unbound computed constants of a class rewritten by the condenser using the {@code executor}.
+   *
+   * @param lookup a lookup of the caller which has access to the class
+   * @return a future completed when all the constants are bound
+   * @throws IllegalArgumentException if the class has no computed constant rewritten by the condenser
+   *   or is not accessible from the lookup
+   */
+  public static CompletableFuture<Void> bindClass(MethodHandles.Lookup lookup, Class<?> declaringClass, Executor executor) {
+    Objects.requireNonNull(lookup);
+    Objects.requireNonNull(declaringClass);
+    Objects.requireNonNull(executor);
+    String[] names;
+    MethodHandle staticInit;
+    try {
+      names = constantNames(lookup, declaringClass);
+      staticInit = staticInit(lookup, declaringClass);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException(declaringClass.getName() + " has no computed constant rewritten by the condenser", e);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException(declaringClass.getName() + " is not accessible", e);
+    }
+    var futures = new ArrayList<CompletableFuture<?>>();
+    bind(declaringClass, names, staticInit, executor, futures);
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+  }
+
+  /**
+   * Binds all the unbound computed constants of the classes of a package rewritten by the condenser
+   * using the {@code executor}. The classes are found using the index written by the condenser
+   * and loaded by {@code classLoader}, the classes that can not be loaded or are not accessible
+   * from the lookup are skipped.
+   *
+   * @param lookup a lookup of the caller which has access to the classes of the package
+   * @return a future completed when all the constants are bound
+   * @throws IOException if an index can not be read
+   */
+  public static CompletableFuture<Void> bindPackage(MethodHandles.Lookup lookup, ClassLoader classLoader, String packageName, Executor executor) throws IOException {
+    Objects.requireNonNull(lookup);
+    Objects.requireNonNull(classLoader);
+    Objects.requireNonNull(packageName);
+    Objects.requireNonNull(executor);
+    var resourceName = packageName.isEmpty() ?
+        ComputedConstantRewriter.CONSTANT_INDEX :
+        packageName.replace('.', '/') + '/' + ComputedConstantRewriter.CONSTANT_INDEX;
+    var classNames = new ArrayList<String>();
+    for(var url: Collections.list(classLoader.getResources(resourceName))) {
+      try(var reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+        reader.lines().filter(line -> !line.isBlank()).forEach(classNames::add);
+      }
+    }
+    var futures = new ArrayList<CompletableFuture<?>>();
+    for(var className: classNames) {
+      Class<?> declaringClass;
+      String[] names;
+      MethodHandle staticInit;
+      try {
+        declaringClass = Class.forName(className, false, classLoader);
+        names = constantNames(lookup, declaringClass);
+        staticInit = staticInit(lookup, declaringClass);
+      } catch (ReflectiveOperationException | LinkageError e) {
+        continue;  // the index may be out of date
+      }
+      bind(declaringClass, names, staticInit, executor, futures);
+    }
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+  }
+
+  private static void bind(Class<?> declaringClass, String[] names, MethodHandle staticInit, Executor executor,
+                           ArrayList<CompletableFuture<?>> futures) {
+    var map = ComputedConstantMetafactory.CLASS_VALUE.get(declaringClass);
+    for(var name: names) {
+      if (map.get(name) != null) {  // already bound or binding
+        continue;
+      }
+      futures.add(CompletableFuture.runAsync(
+          () -> ComputedConstantMetafactory.computeIfUnbound(map, declaringClass, name, staticInit), executor));
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * An unmodifiable map of lazily computed values indexed by the ordinal of the enum constants, like an EnumMap.
+ * The states use the binding engine of {@link IndexedComputedConstant}, the states array has exactly one slot
+ * per enum constant so the ordinal of a key is always a valid index.
+ *
+ * @param <E> type of the enum
+ * @param <V> type of the values
+ */
+final class EnumLazyMap<E extends Enum<E>, V> extends AbstractMap<E, V> {
+  private final Class<E> enumClass;
+  private final E[] constants;
+  private final Object[] states;
+  private final IntFunction<?> ordinalMapper;
+
+  EnumLazyMap(Class<E> enumClass, Function<? super E, ? extends V> mapper) {
+    var constants = enumClass.getEnumConstants();
+    this.enumClass = enumClass;
+    this.constants = constants;
+    this.states = new Object[constants.length];
+    this.ordinalMapper = ordinal -> mapper.apply(constants[ordinal]);
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(int ordinal) {
+    var state = IndexedComputedConstant.state(states, ordinal);
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(states, ordinal, ordinalMapper);
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public int size() {
+    return constants.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return enumClass.isInstance(key);
+  }
+
+  @Override
+  public V get(Object key) {
+    if (!enumClass.isInstance(key)) {
+      return null;
+    }
+    return value(((Enum<?>) key).ordinal());
+  }
+
+  @Override
+  public Set<E> keySet() {
+    return new AbstractSet<>() {
+      @Override
+      public int size() {
+        return constants.length;
+      }
+
+      @Override
+      public boolean contains(Object key) {
+        return containsKey(key);
+      }
+
+      @Override
+      public Iterator<E> iterator() {
+        return new OrdinalIterator<>() {
+          @Override
+          E element(int ordinal) {
+            return constants[ordinal];
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public Set<Entry<E, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public int size() {
+        return constants.length;
+      }
+
+      @Override
+      public Iterator<Entry<E, V>> iterator() {
+        return new OrdinalIterator<>() {
+          @Override
+          Entry<E, V> element(int ordinal) {
+            return new LazyEntry(ordinal);
+          }
+        };
+      }
+    };
+  }
+
+  private abstract class OrdinalIterator<T> implements Iterator<T> {
+    private int ordinal;
+
+    abstract T element(int ordinal);
+
+    @Override
+    public boolean hasNext() {
+      return ordinal < constants.length;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return element(ordinal++);
+    }
+  }
+
+  // an entry which value is only computed when requested
+  private final class LazyEntry implements Entry<E, V> {
+    private final int ordinal;
+
+    private LazyEntry(int ordinal) {
+      this.ordinal = ordinal;
+    }
+
+    @Override
+    public E getKey() {
+      return constants[ordinal];
+    }
+
+    @Override
+    public V getValue() {
+      return value(ordinal);
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Entry<?, ?> entry && constants[ordinal] == entry.getKey() && Objects.equals(getValue(), entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return constants[ordinal].hashCode() ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return constants[ordinal] + "=" + getValue();
+    }
+  }
+}
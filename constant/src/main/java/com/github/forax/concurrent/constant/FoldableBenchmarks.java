@@ -0,0 +1,55 @@
+package com.github.forax.concurrent.constant;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// This class is not rewritten by the condenser (ofFoldable() is not a constant supplier it knows)
+// Benchmark                                    Mode  Cnt  Score   Error  Units
+// FoldableBenchmarks.static_computed_get_42    avgt   15  1.179 ± 0.247  ns/op
+// FoldableBenchmarks.static_constant_get_42    avgt   15  0.508 ± 0.115  ns/op
+// FoldableBenchmarks.static_foldable_get_42    avgt   15  0.654 ± 0.100  ns/op
+// FoldableBenchmarks.static_reloadable_get_42  avgt   15  0.763 ± 0.141  ns/op
+
+// $JAVA_HOME/bin/java -jar target/benchmarks.jar FoldableBenchmarks
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class FoldableBenchmarks {
+  private static final Integer STATIC_CONSTANT_42 = 42;
+  private static final ComputedConstant<Integer> STATIC_COMPUTED_42 = ComputedConstant.of(() -> 42);
+  private static final ComputedConstant<Integer> STATIC_FOLDABLE_42 = ComputedConstant.ofFoldable(() -> 42);
+  private static final ReloadableComputedConstant<Integer> STATIC_RELOADABLE_42 = ComputedConstant.ofReloadable(() -> 42);
+
+  @Benchmark
+  public void static_constant_get_42(Blackhole blackhole) {
+    blackhole.consume(STATIC_CONSTANT_42);
+  }
+
+  @Benchmark
+  public void static_computed_get_42(Blackhole blackhole) {
+    blackhole.consume(STATIC_COMPUTED_42.get());
+  }
+
+  @Benchmark
+  public void static_foldable_get_42(Blackhole blackhole) {
+    blackhole.consume(STATIC_FOLDABLE_42.get());
+  }
+
+  @Benchmark
+  public void static_reloadable_get_42(Blackhole blackhole) {
+    blackhole.consume(STATIC_RELOADABLE_42.get());
+  }
+}
@@ -0,0 +1,143 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Computed constant used by {@link ComputedConstant#ofFoldable(Supplier)}.
+ * <p>
+ * The state is read through the invoker of a {@link MutableCallSite} which initially calls the binding engine
+ * of {@link IndexedComputedConstant} and is relinked to a constant method handle of the state once bound.
+ * The fields of a record are trusted as constant by the JIT, so if the computed constant is itself stored
+ * in a static final field, {@link #get()} is folded to the value without rewriting the bytecode.
+ *
+ * @param <V> type of the value
+ */
+record FoldableComputedConstant<V>(Object[] states, IntFunction<? extends V> mapper, MethodHandle invoker) implements ComputedConstant<V> {
+  private static final MethodHandle BIND;
+  static {
+    var lookup = MethodHandles.lookup();
+    try {
+      BIND = lookup.findStatic(FoldableComputedConstant.class, "bind",
+          methodType(Object.class, MutableCallSite.class, Object[].class, IntFunction.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  static <V> FoldableComputedConstant<V> of(Supplier<? extends V> supplier) {
+    var states = new Object[1];
+    IntFunction<? extends V> mapper = __ -> supplier.get();
+    var callSite = new MutableCallSite(methodType(Object.class));
+    callSite.setTarget(MethodHandles.insertArguments(BIND, 0, callSite, states, mapper));
+    return new FoldableComputedConstant<>(states, mapper, callSite.dynamicInvoker());
+  }
+
+  private static Object bind(MutableCallSite callSite, Object[] states, IntFunction<?> mapper) {
+    var state = IndexedComputedConstant.computeIfUnbound(states, 0, mapper);
+    callSite.setTarget(MethodHandles.constant(Object.class, state));
+    return state;
+  }
+
+  private Object state() {
+    try {
+      return (Object) invoker.invokeExact();
+    } catch (Throwable t) {
+      throw IndexedComputedConstant.rethrow(t);
+    }
+  }
+
+  @Override
+  public boolean isBinding() {
+    return IndexedComputedConstant.state(states, 0) instanceof State.Binding;
+  }
+  @Override
+  public boolean isBound() {
+    var state = IndexedComputedConstant.state(states, 0);
+    return state != null && !(state instanceof State.Binding);
+  }
+  @Override
+  public boolean isError() {
+    return IndexedComputedConstant.state(states, 0) instanceof State.Error;
+  }
+  @Override
+  public boolean isUnbound() {
+    return IndexedComputedConstant.state(states, 0) == null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get() {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public Optional<V> tryGet() {
+    return IndexedComputedConstant.tryGet(IndexedComputedConstant.state(states, 0));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Duration timeout) throws InterruptedException, TimeoutException {
+    var state = IndexedComputedConstant.state(states, 0);
+    if (state == null || state instanceof State.Binding) {
+      // the call site is relinked by the next call to the invoker
+      state = IndexedComputedConstant.computeIfUnbound(states, 0, 0, mapper, IndexedComputedConstant.deadline(timeout));
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public boolean trySet(V value) {
+    return IndexedComputedConstant.compareAndSetState(states, 0, null, IndexedComputedConstant.wrap(value));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V orElse(V other) {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      return other;
+    }
+    return (V) state;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      throw exceptionSupplier.get();
+    }
+    return (V) state;
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Binds a graph of computed constants, the dependencies of a constant are bound before the constant
+ * and the constants that do not depend on each other are bound concurrently.
+ * <p>
+ * The graph is walked iteratively (a long chain of {@code map()} should not overflow the stack),
+ * each constant is associated to a future completed when the constant is bound,
+ * an already bound constant is not visited further.
+ */
+final class GraphBinder {
+  private GraphBinder() {
+    throw new AssertionError();
+  }
+
+  private static List<ComputedConstant<?>> dependencies(ComputedConstant<?> constant) {
+    return constant instanceof SingleComputedConstant<?> single ? single.dependencies() : List.of();
+  }
+
+  static CompletableFuture<Void> bindGraph(Collection<? extends ComputedConstant<?>> constants, Executor executor) {
+    var futures = new IdentityHashMap<ComputedConstant<?>, CompletableFuture<Void>>();
+    var stack = new ArrayDeque<ComputedConstant<?>>();
+    for(var root: constants) {
+      stack.push(root);
+      while(!stack.isEmpty()) {
+        var constant = stack.peek();
+        if (futures.containsKey(constant)) {
+          stack.pop();
+          continue;
+        }
+        if (constant.isBound()) {
+          futures.put(constant, CompletableFuture.completedFuture(null));
+          stack.pop();
+          continue;
+        }
+        var dependencies = dependencies(constant);
+        var visited = true;
+        for(var dependency: dependencies) {
+          if (!futures.containsKey(dependency)) {
+            stack.push(dependency);
+            visited = false;
+          }
+        }
+        if (!visited) {
+          continue;  // the dependencies first
+        }
+        stack.pop();
+        var dependencyFutures = dependencies.stream().map(futures::get).toArray(CompletableFuture<?>[]::new);
+        // orElse() binds the constant without throwing the error
+        Runnable binding = () -> constant.orElse(null);
+        futures.put(constant, dependencyFutures.length == 0 ?
+            CompletableFuture.runAsync(binding, executor) :
+            CompletableFuture.allOf(dependencyFutures).thenRunAsync(binding, executor));
+      }
+    }
+    return CompletableFuture.allOf(constants.stream().map(futures::get).toArray(CompletableFuture<?>[]::new));
+  }
+}
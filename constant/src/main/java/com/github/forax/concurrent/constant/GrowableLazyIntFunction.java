@@ -0,0 +1,75 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A memoized function over the non-negative ints, the values are computed lazily and at most once.
+ * <p>
+ * The states are stored in segments, the segment {@code k} has {@code 2^(k + 4)} slots, so the storage is extended
+ * by power of two segments when higher indexes are requested. The directory of the segments is allocated once
+ * and a segment is never copied, readers of an index already bound never wait for the storage to grow.
+ * The states use the binding engine of {@link IndexedComputedConstant}.
+ *
+ * @param <V> type of the values
+ */
+final class GrowableLazyIntFunction<V> implements IntFunction<V> {
+  private static final int FIRST_SHIFT = 4;
+  private static final int FIRST_SIZE = 1 << FIRST_SHIFT;
+  private static final int SEGMENT_COUNT = Integer.SIZE - 1 - FIRST_SHIFT;
+  static final int MAX_INDEX = Integer.MAX_VALUE - FIRST_SIZE;
+
+  private static final VarHandle SEGMENTS = MethodHandles.arrayElementVarHandle(Object[][].class);
+
+  private final Object[][] segments = new Object[SEGMENT_COUNT][];
+  private final IntFunction<? extends V> mapper;
+
+  GrowableLazyIntFunction(IntFunction<? extends V> mapper) {
+    this.mapper = mapper;
+  }
+
+  private Object[] segment(int segmentIndex) {
+    var segment = (Object[]) SEGMENTS.getAcquire(segments, segmentIndex);
+    if (segment != null) {
+      return segment;
+    }
+    var newSegment = new Object[1 << (segmentIndex + FIRST_SHIFT)];
+    var witness = (Object[]) SEGMENTS.compareAndExchange(segments, segmentIndex, (Object[]) null, newSegment);
+    return witness == null ? newSegment : witness;
+  }
+
+  int segmentCount() {
+    var count = 0;
+    for(var i = 0; i < SEGMENT_COUNT; i++) {
+      if (SEGMENTS.getAcquire(segments, i) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V apply(int index) {
+    Objects.checkIndex(index, MAX_INDEX + 1);
+    var n = index + FIRST_SIZE;
+    var highestBit = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(n);
+    var segment = segment(highestBit - FIRST_SHIFT);
+    var slot = n - (1 << highestBit);
+    var state = IndexedComputedConstant.state(segment, slot);
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(segment, slot, index, mapper);
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+}
@@ -1,104 +1,302 @@
 package com.github.forax.concurrent.constant;
 
-import sun.misc.Unsafe;
-
-import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 
-record IndexedComputedConstant<V>(List<Object> states, int index, IntFunction<? extends V> mapper, ReentrantLock lock) implements ComputedConstant<V> {
-  // states can be unbound (null), a computed value (anything), an error (State.Error) or null (NullObject.NULL)
+record IndexedComputedConstant<V>(Object[] states, int index, IntFunction<? extends V> mapper) implements ComputedConstant<V> {
+  // states can be unbound (null), binding (State.Binding), a computed value (anything), an error (State.Error)
+  // or null (NullObject.NULL)
   sealed interface State {
     record Error(Throwable throwable) {}
     enum NullObject implements State {
       NULL
     }
-  }
 
-  private static final Unsafe UNSAFE;
-  private static final long ELEMENTS_OFFSET, ELEMENTS_BASE_OFFSET, ELEMENT_INDEX_SCALE;
-  static {
-    try {
-      var theUnsafeField = Unsafe.class.getDeclaredField("theUnsafe");
-      theUnsafeField.setAccessible(true);
-      UNSAFE = (Unsafe) theUnsafeField.get(null);
+    /**
+     * Marker installed by CAS in a state slot while the thread {@link #owner} computes the value.
+     * Other threads block on the monitor of the marker until the slot is bound.
+     */
+    final class Binding implements State {
+      private final Thread owner;
+      private boolean released;  // guarded by this
+
+      Binding(Thread owner) {
+        this.owner = owner;
+      }
+
+      private void checkOwner() {
+        if (owner == Thread.currentThread()) {
+          throw new IllegalStateException("recursive binding of a computed constant");
+        }
+      }
+
+      void await() {
+        checkOwner();
+        var interrupted = false;
+        synchronized (this) {
+          while (!released) {
+            try {
+              wait();
+            } catch (InterruptedException e) {
+              interrupted = true;
+            }
+          }
+        }
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
 
-      var elementsField = Stream.of((Object) null).toList().getClass().getDeclaredField("elements");
-      @Deprecated
-      var elementsOffset = UNSAFE.objectFieldOffset(elementsField);
-      ELEMENTS_OFFSET = elementsOffset;
+      /**
+       * Waits until the slot is bound or {@code deadline} (in {@link System#nanoTime()} unit) is reached.
+       */
+      void await(long deadline) throws InterruptedException, TimeoutException {
+        checkOwner();
+        synchronized (this) {
+          while (!released) {
+            var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              throw new TimeoutException("computed constant still binding");
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+          }
+        }
+      }
 
-      ELEMENTS_BASE_OFFSET = UNSAFE.arrayBaseOffset(Object[].class);
-      ELEMENT_INDEX_SCALE = UNSAFE.arrayIndexScale(Object[].class);
-    } catch (IllegalAccessException | NoSuchFieldException e) {
-      throw new AssertionError(e);
+      synchronized void release() {
+        released = true;
+        notifyAll();
+      }
     }
   }
 
-  private static Object wrap(Object state) {
+  private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(Object[].class);
+  private static final Duration MAX_TIMEOUT = Duration.ofNanos(Long.MAX_VALUE / 2);
+
+  static Object wrap(Object state) {
     return state == null ? State.NullObject.NULL : state;
   }
 
-  private Object computeIfUnbound() {
-    var states = this.states;
-    var elements = (Object[]) UNSAFE.getObject(states, ELEMENTS_OFFSET);
+  static Object state(Object[] states, int index) {
+    return STATES.getVolatile(states, index);
+  }
+
+  static void setState(Object[] states, int index, Object state) {
+    STATES.setVolatile(states, index, state);
+  }
+
+  static boolean compareAndSetState(Object[] states, int index, Object expected, Object state) {
+    return STATES.compareAndSet(states, index, expected, state);
+  }
+
+  /**
+   * A slot containing a state (unbound, binding, bound or error), the binding protocol of
+   * {@link #computeIfUnbound(StateSlot)} is shared by all the computed constants,
+   * an implementation only says how to access the slot and how to compute the bound state.
+   */
+  interface StateSlot {
+    /**
+     * Returns the raw state of the slot.
+     */
+    Object loadState();
+
+    /**
+     * Returns the state corresponding to the raw state, null if unbound. By default, the raw state itself.
+     */
+    default Object unwrapState(Object rawState) {
+      return rawState;
+    }
+
+    boolean compareAndSetState(Object expectedRawState, Object rawState);
+
+    /**
+     * Computes the bound state, stores it in the slot and returns it (unwrapped).
+     * Called only by the thread that installed the binding marker, an exception must be recorded as an error.
+     */
+    Object computeState();
+  }
+
+  private record ArraySlot(Object[] states, int slot, int index, IntFunction<?> mapper) implements StateSlot {
+    @Override
+    public Object loadState() {
+      return STATES.getVolatile(states, slot);
+    }
+
+    @Override
+    public boolean compareAndSetState(Object expectedRawState, Object rawState) {
+      return STATES.compareAndSet(states, slot, expectedRawState, rawState);
+    }
+
+    @Override
+    public Object computeState() {
+      Object state;
+      try {
+        state = wrap(mapper.apply(index));
+      } catch (Throwable t) {
+        state = new State.Error(t);
+      }
+      STATES.setVolatile(states, slot, state);
+      return state;
+    }
+  }
+
+  /**
+   * Binding engine shared by all the computed constants.
+   * The first thread that succeeds to CAS a {@link State.Binding} marker in the slot computes the state,
+   * the other threads wait on the marker. The returned state is never null or a binding marker.
+   */
+  static Object computeIfUnbound(StateSlot slot) {
+    for(;;) {
+      var rawState = slot.loadState();
+      var state = slot.unwrapState(rawState);
+      if (state == null) {
+        state = bind(slot, rawState);
+        if (state == null) {
+          continue;
+        }
+        return state;
+      }
+      if (state instanceof State.Binding binding) {
+        binding.await();
+        continue;
+      }
+      return state;
+    }
+  }
 
-    lock.lock();
-    try {
-      var state = UNSAFE.getObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE);
+  /**
+   * Same as {@link #computeIfUnbound(StateSlot)} but waits for another thread binding the slot
+   * at most until {@code deadline}.
+   */
+  static Object computeIfUnbound(StateSlot slot, long deadline) throws InterruptedException, TimeoutException {
+    for(;;) {
+      var rawState = slot.loadState();
+      var state = slot.unwrapState(rawState);
       if (state == null) {
-        try {
-          state = wrap(mapper.apply(index));
-        } catch (Throwable t) {
-          state = new State.Error(t);
+        state = bind(slot, rawState);
+        if (state == null) {
+          continue;
         }
-        UNSAFE.putObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE, state);
+        return state;
+      }
+      if (state instanceof State.Binding binding) {
+        binding.await(deadline);
+        continue;
       }
       return state;
-    } finally {
-      lock.unlock();
     }
   }
 
+  // returns the bound state or null if another thread is binding the slot
+  private static Object bind(StateSlot slot, Object expectedRawState) {
+    var binding = new State.Binding(Thread.currentThread());
+    if (!slot.compareAndSetState(expectedRawState, binding)) {
+      return null;
+    }
+    var state = slot.computeState();
+    binding.release();
+    return state;
+  }
+
+  /**
+   * Computes the state of the slot at {@code index} of the array of states if unbound,
+   * see {@link #computeIfUnbound(StateSlot)}.
+   */
+  static Object computeIfUnbound(Object[] states, int index, IntFunction<?> mapper) {
+    return computeIfUnbound(new ArraySlot(states, index, index, mapper));
+  }
+
+  /**
+   * Same as {@link #computeIfUnbound(Object[], int, IntFunction)} but the state is stored at {@code slot}
+   * while the mapper is called with {@code index}.
+   */
+  static Object computeIfUnbound(Object[] states, int slot, int index, IntFunction<?> mapper) {
+    return computeIfUnbound(new ArraySlot(states, slot, index, mapper));
+  }
+
+  /**
+   * Same as {@link #computeIfUnbound(Object[], int, int, IntFunction)} but waits for another thread
+   * binding the slot at most until {@code deadline}.
+   */
+  static Object computeIfUnbound(Object[] states, int slot, int index, IntFunction<?> mapper, long deadline) throws InterruptedException, TimeoutException {
+    return computeIfUnbound(new ArraySlot(states, slot, index, mapper), deadline);
+  }
+
+  /**
+   * Returns the deadline corresponding to the timeout, deadlines are compared using a difference of nanoTime()
+   * so the timeout is capped to Long.MAX_VALUE / 2 nanoseconds.
+   */
+  static long deadline(Duration timeout) {
+    var nanos = timeout.isNegative() ? 0 : timeout.compareTo(MAX_TIMEOUT) < 0 ? timeout.toNanos() : MAX_TIMEOUT.toNanos();
+    return System.nanoTime() + nanos;
+  }
+
+  /**
+   * Returns the value of a bound state as an optional, null is represented as an empty optional,
+   * an unbound state or a binding state are also represented as an empty optional.
+   */
+  @SuppressWarnings("unchecked")
+  static <V> Optional<V> tryGet(Object state) {
+    if (state == null || state instanceof State.Binding || state == State.NullObject.NULL) {
+      return Optional.empty();
+    }
+    if (state instanceof State.Error error) {
+      throw rethrow(error.throwable());
+    }
+    return Optional.of((V) state);
+  }
+
   @Override
   public boolean isBinding() {
-    var states = this.states;
-    var elements = UNSAFE.getObject(states, ELEMENTS_OFFSET);
-    var state = UNSAFE.getObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE);
-    return state == null && lock.isLocked();
+    return state(states, index) instanceof State.Binding;
   }
   @Override
   public boolean isBound() {
-    var states = this.states;
-    var elements = UNSAFE.getObject(states, ELEMENTS_OFFSET);
-    var state = UNSAFE.getObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE);
-    return state != null;
+    var state = state(states, index);
+    return state != null && !(state instanceof State.Binding);
   }
   @Override
   public boolean isError() {
-    var states = this.states;
-    var elements = UNSAFE.getObject(states, ELEMENTS_OFFSET);
-    var state = UNSAFE.getObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE);
-    return state instanceof State.Error;
+    return state(states, index) instanceof State.Error;
   }
   @Override
   public boolean isUnbound() {
-    var states = this.states;
-    var elements = UNSAFE.getObject(states, ELEMENTS_OFFSET);
-    var state = UNSAFE.getObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE);
-    return state == null;
+    return state(states, index) == null;
   }
 
   @Override
   @SuppressWarnings("unchecked")
   public V get() {
-    var states = this.states;
-    var elements = (Object[]) UNSAFE.getObject(states, ELEMENTS_OFFSET);
-    var state = UNSAFE.getObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE);
-    if (state == null) {
-      state = computeIfUnbound();
+    var state = state(states, index);
+    if (state == null || state instanceof State.Binding) {
+      state = computeIfUnbound(states, index, mapper);
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw rethrow(error.throwable);
+    }
+    return (V) state;
+  }
+
+  @Override
+  public Optional<V> tryGet() {
+    return tryGet(state(states, index));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Duration timeout) throws InterruptedException, TimeoutException {
+    var state = state(states, index);
+    if (state == null || state instanceof State.Binding) {
+      state = computeIfUnbound(states, index, index, mapper, deadline(timeout));
     }
     if (state == State.NullObject.NULL) {
       return null;
@@ -110,18 +308,21 @@ record IndexedComputedConstant<V>(List<Object> states, int index, IntFunction<?
   }
 
   @SuppressWarnings("unchecked")
-  private static <X extends Throwable> RuntimeException rethrow(Throwable throwable) throws X {
+  static <X extends Throwable> RuntimeException rethrow(Throwable throwable) throws X {
     throw (X) throwable;
   }
 
+  @Override
+  public boolean trySet(V value) {
+    return compareAndSetState(states, index, null, wrap(value));
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public V orElse(V other) {
-    var states = this.states;
-    var elements = (Object[]) UNSAFE.getObject(states, ELEMENTS_OFFSET);
-    var state = UNSAFE.getObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE);
-    if (state == null) {
-      state = computeIfUnbound();
+    var state = state(states, index);
+    if (state == null || state instanceof State.Binding) {
+      state = computeIfUnbound(states, index, mapper);
     }
     if (state == State.NullObject.NULL) {
       return null;
@@ -135,11 +336,9 @@ record IndexedComputedConstant<V>(List<Object> states, int index, IntFunction<?
   @Override
   @SuppressWarnings("unchecked")
   public <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
-    var states = this.states;
-    var elements = (Object[]) UNSAFE.getObject(states, ELEMENTS_OFFSET);
-    var state = UNSAFE.getObjectVolatile(elements, ELEMENTS_BASE_OFFSET + index * ELEMENT_INDEX_SCALE);
-    if (state == null) {
-      state = computeIfUnbound();
+    var state = state(states, index);
+    if (state == null || state instanceof State.Binding) {
+      state = computeIfUnbound(states, index, mapper);
     }
     if (state == State.NullObject.NULL) {
       return null;
@@ -149,4 +348,4 @@ record IndexedComputedConstant<V>(List<Object> states, int index, IntFunction<?
     }
     return (V) state;
   }
-}
\ No newline at end of file
+}
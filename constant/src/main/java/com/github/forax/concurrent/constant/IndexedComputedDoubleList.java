@@ -0,0 +1,56 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Supplier;
+
+final class IndexedComputedDoubleList extends BitsetComputedList implements ComputedDoubleList {
+  private final double[] values;
+  private final IntToDoubleFunction mapper;
+
+  IndexedComputedDoubleList(int size, IntToDoubleFunction mapper) {
+    super(size);
+    this.values = new double[size];
+    this.mapper = mapper;
+  }
+
+  @Override
+  void compute(int index) {
+    values[index] = mapper.applyAsDouble(index);
+  }
+
+  @Override
+  public double getAsDouble(int index) {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      throw rethrow(index);
+    }
+    return values[index];
+  }
+
+  @Override
+  public double orElse(int index, double other) {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      return other;
+    }
+    return values[index];
+  }
+
+  @Override
+  public <X extends Throwable> double orElseThrow(int index, Supplier<? extends X> exceptionSupplier) throws X {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      throw exceptionSupplier.get();
+    }
+    return values[index];
+  }
+}
@@ -0,0 +1,56 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+final class IndexedComputedIntList extends BitsetComputedList implements ComputedIntList {
+  private final int[] values;
+  private final IntUnaryOperator mapper;
+
+  IndexedComputedIntList(int size, IntUnaryOperator mapper) {
+    super(size);
+    this.values = new int[size];
+    this.mapper = mapper;
+  }
+
+  @Override
+  void compute(int index) {
+    values[index] = mapper.applyAsInt(index);
+  }
+
+  @Override
+  public int getAsInt(int index) {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      throw rethrow(index);
+    }
+    return values[index];
+  }
+
+  @Override
+  public int orElse(int index, int other) {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      return other;
+    }
+    return values[index];
+  }
+
+  @Override
+  public <X extends Throwable> int orElseThrow(int index, Supplier<? extends X> exceptionSupplier) throws X {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      throw exceptionSupplier.get();
+    }
+    return values[index];
+  }
+}
@@ -0,0 +1,56 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
+
+final class IndexedComputedLongList extends BitsetComputedList implements ComputedLongList {
+  private final long[] values;
+  private final IntToLongFunction mapper;
+
+  IndexedComputedLongList(int size, IntToLongFunction mapper) {
+    super(size);
+    this.values = new long[size];
+    this.mapper = mapper;
+  }
+
+  @Override
+  void compute(int index) {
+    values[index] = mapper.applyAsLong(index);
+  }
+
+  @Override
+  public long getAsLong(int index) {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      throw rethrow(index);
+    }
+    return values[index];
+  }
+
+  @Override
+  public long orElse(int index, long other) {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      return other;
+    }
+    return values[index];
+  }
+
+  @Override
+  public <X extends Throwable> long orElseThrow(int index, Supplier<? extends X> exceptionSupplier) throws X {
+    var state = state(index);
+    if (state == BOUND) {
+      return values[index];
+    }
+    if (!computeIfUnbound(index)) {
+      throw exceptionSupplier.get();
+    }
+    return values[index];
+  }
+}
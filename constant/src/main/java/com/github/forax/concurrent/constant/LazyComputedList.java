@@ -0,0 +1,88 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * An unmodifiable list of lazily computed values sharing the same states as {@link IndexedComputedConstant}.
+ * The computed constants of {@link #constants()} are only created when requested and are not cached,
+ * each call to {@code get(index)} returns a new (equal) view on the same state.
+ *
+ * @param <V> type of the values
+ */
+final class LazyComputedList<V> extends AbstractList<V> implements RandomAccess {
+  private final Object[] states;
+  private final IntFunction<? extends V> mapper;
+
+  LazyComputedList(int size, IntFunction<? extends V> mapper) {
+    this.states = new Object[size];
+    this.mapper = mapper;
+  }
+
+  @Override
+  public int size() {
+    return states.length;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(int index) {
+    Objects.checkIndex(index, states.length);
+    var state = IndexedComputedConstant.state(states, index);
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(states, index, mapper);
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  Object[] states() {
+    return states;
+  }
+
+  IntFunction<? extends V> mapper() {
+    return mapper;
+  }
+
+  /**
+   * Returns the lazy list backing a list returned by {@link #constants()} or null.
+   */
+  static LazyComputedList<?> ownerOf(List<?> list) {
+    return list instanceof LazyComputedList<?>.ConstantList constantList ? constantList.owner() : null;
+  }
+
+  ComputedConstant<V> constant(int index) {
+    Objects.checkIndex(index, states.length);
+    return new IndexedComputedConstant<>(states, index, mapper);
+  }
+
+  List<ComputedConstant<V>> constants() {
+    return new ConstantList();
+  }
+
+  private final class ConstantList extends AbstractList<ComputedConstant<V>> implements RandomAccess {
+    private LazyComputedList<V> owner() {
+      return LazyComputedList.this;
+    }
+
+    @Override
+    public int size() {
+      return states.length;
+    }
+
+    @Override
+    public ComputedConstant<V> get(int index) {
+      return constant(index);
+    }
+  }
+}
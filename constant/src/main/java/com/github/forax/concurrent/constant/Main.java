@@ -4,6 +4,9 @@ public class Main {
   private static final ComputedConstant<String> TEXT =
       ComputedConstant.of(() -> "Hello");
 
+  private static final ComputedIntConstant LENGTH =
+      ComputedIntConstant.of(() -> TEXT.get().length());
+
   public static String message() {
     return TEXT.get();
   }
@@ -18,5 +21,6 @@ public class Main {
     System.out.println(message());
     System.out.println(TEXT.isBound());
     System.out.println(Nested.message2());
+    System.out.println(LENGTH.getAsInt());
   }
 }
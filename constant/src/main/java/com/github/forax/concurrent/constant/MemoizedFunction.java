@@ -0,0 +1,21 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.function.Function;
+
+/**
+ * A function that memoizes its results, created by {@link ComputedConstant#ofBoundedFunction(int, Function)}.
+ * Like a computed constant, the value of a key is computed at most once and concurrent calls with the same key
+ * wait for that computation, but the number of values kept is bounded, so a value may be evicted and
+ * recomputed later.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public sealed interface MemoizedFunction<K, V> extends Function<K, V> permits BoundedMemoizedFunction {
+  V apply(K key);
+
+  int size();
+  long hitCount();
+  long missCount();
+  long evictionCount();
+}
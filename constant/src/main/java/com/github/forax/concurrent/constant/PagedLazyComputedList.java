@@ -0,0 +1,80 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * An unmodifiable list of lazily computed values for large and sparsely accessed index spaces.
+ * The states are split in pages of {@link #PAGE_SIZE} slots, a page is only allocated the first time
+ * one of its index is accessed, so the memory used is proportional to the number of pages touched.
+ * Once a page exists, a lookup is two array loads.
+ *
+ * @param <V> type of the values
+ */
+final class PagedLazyComputedList<V> extends AbstractList<V> implements RandomAccess {
+  private static final int PAGE_SHIFT = 10;
+  static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private static final VarHandle PAGES = MethodHandles.arrayElementVarHandle(Object[][].class);
+
+  private final int size;
+  private final Object[][] pages;
+  private final IntFunction<? extends V> mapper;
+
+  PagedLazyComputedList(int size, IntFunction<? extends V> mapper) {
+    this.size = size;
+    this.pages = new Object[(int) (((long) size + PAGE_MASK) >>> PAGE_SHIFT)][];
+    this.mapper = mapper;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private Object[] page(int pageIndex) {
+    var page = (Object[]) PAGES.getAcquire(pages, pageIndex);
+    if (page != null) {
+      return page;
+    }
+    var newPage = new Object[Math.min(PAGE_SIZE, size - (pageIndex << PAGE_SHIFT))];
+    var witness = (Object[]) PAGES.compareAndExchange(pages, pageIndex, (Object[]) null, newPage);
+    return witness == null ? newPage : witness;
+  }
+
+  int pageCount() {
+    var count = 0;
+    for(var i = 0; i < pages.length; i++) {
+      if (PAGES.getAcquire(pages, i) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(int index) {
+    Objects.checkIndex(index, size);
+    var page = page(index >>> PAGE_SHIFT);
+    var slot = index & PAGE_MASK;
+    var state = IndexedComputedConstant.state(page, slot);
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(page, slot, index, mapper);
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+}
@@ -0,0 +1,90 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * Binds all the constants of a list in parallel by splitting the range of indexes recursively.
+ * The constants of a list created by {@link ComputedConstant#ofList(int, java.util.function.IntFunction)}
+ * are bound directly on the array of states, the other lists are bound through {@link ComputedConstant#orElse(Object)}.
+ */
+final class ParallelBinder extends RecursiveAction {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private static final int SKIPPED = 0, BOUND = 1, ERROR = 2;
+
+  private final Slots slots;
+  private final int from, to, threshold;
+
+  private ParallelBinder(Slots slots, int from, int to, int threshold) {
+    this.slots = slots;
+    this.from = from;
+    this.to = to;
+    this.threshold = threshold;
+  }
+
+  private record Slots(List<? extends ComputedConstant<?>> constants, LazyComputedList<?> lazyList,
+                       LongAdder bound, LongAdder errors, LongAdder skipped,
+                       AtomicInteger done, IntConsumer progress) {
+    int bind(int index) {
+      if (lazyList != null) {
+        var states = lazyList.states();
+        if (IndexedComputedConstant.state(states, index) != null) {  // bound or being bound by another thread
+          return SKIPPED;
+        }
+        var state = IndexedComputedConstant.computeIfUnbound(states, index, lazyList.mapper());
+        return state instanceof State.Error ? ERROR : BOUND;
+      }
+      var constant = constants.get(index);
+      if (!constant.isUnbound()) {
+        return SKIPPED;
+      }
+      constant.orElse(null);
+      return constant.isError() ? ERROR : BOUND;
+    }
+  }
+
+  static BindingStatistics bindAll(List<? extends ComputedConstant<?>> constants, ForkJoinPool pool, IntConsumer progress) {
+    var start = System.nanoTime();
+    var size = constants.size();
+    var slots = new Slots(constants, LazyComputedList.ownerOf(constants),
+        new LongAdder(), new LongAdder(), new LongAdder(), new AtomicInteger(), progress);
+    if (size != 0) {
+      // a few tasks per worker so the work can be stolen
+      var threshold = Math.max(1, size / (pool.getParallelism() * 8));
+      pool.invoke(new ParallelBinder(slots, 0, size, threshold));
+    }
+    return new BindingStatistics(slots.bound.intValue(), slots.errors.intValue(), slots.skipped.intValue(),
+        Duration.ofNanos(System.nanoTime() - start));
+  }
+
+  @Override
+  protected void compute() {
+    if (to - from > threshold) {
+      var middle = (from + to) >>> 1;
+      invokeAll(new ParallelBinder(slots, from, middle, threshold), new ParallelBinder(slots, middle, to, threshold));
+      return;
+    }
+    int bound = 0, errors = 0, skipped = 0;
+    for(var i = from; i < to; i++) {
+      switch (slots.bind(i)) {
+        case BOUND -> bound++;
+        case ERROR -> errors++;
+        default -> skipped++;
+      }
+    }
+    slots.bound.add(bound);
+    slots.errors.add(errors);
+    slots.skipped.add(skipped);
+    slots.progress.accept(slots.done.addAndGet(to - from));
+  }
+}
@@ -0,0 +1,311 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * An unmodifiable map of lazily computed values over a fixed set of keys.
+ * <p>
+ * The keys are laid out using a perfect hash function (hash and displace): the keys are first dispatched
+ * into buckets, then for each bucket a seed is found so all the keys of the bucket land in a free slot.
+ * A lookup is the load of the seed of the bucket followed by a single probe in the flat arrays of keys and states,
+ * the states use the binding engine of {@link IndexedComputedConstant}.
+ * Keys with the same hash code can not be separated by a perfect hash function, so those keys are stored
+ * after the table and only found by a linear scan.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+final class PerfectHashLazyMap<K, V> extends AbstractMap<K, V> {
+  private static final int MAX_SEED = 1 << 16;
+
+  private final int size;
+  private final int[] seeds;
+  private final int tableSize;
+  private final Object[] keys;
+  private final Object[] states;
+  private final IntFunction<?> slotMapper;
+
+  @SuppressWarnings("unchecked")
+  PerfectHashLazyMap(Set<? extends K> keySet, Function<? super K, ? extends V> mapper) {
+    var keyArray = keySet.toArray();
+    var size = keyArray.length;
+
+    // keys with the same hash code go to the overflow
+    var hashes = new HashSet<Integer>();
+    var primaries = new ArrayList<>();
+    var overflows = new ArrayList<>();
+    for(var key: keyArray) {
+      Objects.requireNonNull(key, "null key");
+      (hashes.add(key.hashCode()) ? primaries : overflows).add(key);
+    }
+
+    var bucketCount = tableSizeFor(Math.max(1, primaries.size() / 2));
+    var tableSize = tableSizeFor(primaries.size() + primaries.size() / 3 + 1);
+    int[] seeds;
+    Object[] table;
+    for(;;) {
+      seeds = new int[bucketCount];
+      table = layout(primaries, bucketCount, seeds, tableSize);
+      if (table != null) {
+        break;
+      }
+      tableSize <<= 1;
+    }
+    var keys = Arrays.copyOf(table, tableSize + overflows.size());
+    for(var i = 0; i < overflows.size(); i++) {
+      keys[tableSize + i] = overflows.get(i);
+    }
+
+    this.size = size;
+    this.seeds = seeds;
+    this.tableSize = tableSize;
+    this.keys = keys;
+    this.states = new Object[keys.length];
+    this.slotMapper = slot -> mapper.apply((K) keys[slot]);
+  }
+
+  private static int tableSizeFor(int capacity) {
+    return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  // murmur3 finalizer
+  private static int mix(int hash, int seed) {
+    var h = hash ^ seed * 0x9E3779B9;
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  // returns the table of keys or null if a seed can not be found for a bucket
+  private static Object[] layout(ArrayList<Object> keys, int bucketCount, int[] seeds, int tableSize) {
+    var buckets = new ArrayList<ArrayList<Object>>();
+    for(var i = 0; i < bucketCount; i++) {
+      buckets.add(new ArrayList<>());
+    }
+    for(var key: keys) {
+      buckets.get(mix(key.hashCode(), 0) & (bucketCount - 1)).add(key);
+    }
+    var order = new Integer[bucketCount];
+    Arrays.setAll(order, i -> i);
+    Arrays.sort(order, Comparator.comparingInt((Integer b) -> buckets.get(b).size()).reversed());
+
+    var table = new Object[tableSize];
+    var slots = new int[0];
+    for(var bucketIndex: order) {
+      var bucket = buckets.get(bucketIndex);
+      if (bucket.isEmpty()) {
+        break;
+      }
+      if (slots.length < bucket.size()) {
+        slots = new int[bucket.size()];
+      }
+      var seed = findSeed(bucket, table, slots);
+      if (seed == 0) {
+        return null;
+      }
+      for(var i = 0; i < bucket.size(); i++) {
+        table[slots[i]] = bucket.get(i);
+      }
+      seeds[bucketIndex] = seed;
+    }
+    return table;
+  }
+
+  private static int findSeed(ArrayList<Object> bucket, Object[] table, int[] slots) {
+    loop: for(var seed = 1; seed < MAX_SEED; seed++) {
+      for(var i = 0; i < bucket.size(); i++) {
+        var slot = mix(bucket.get(i).hashCode(), seed) & (table.length - 1);
+        if (table[slot] != null) {
+          continue loop;
+        }
+        for(var j = 0; j < i; j++) {
+          if (slots[j] == slot) {
+            continue loop;
+          }
+        }
+        slots[i] = slot;
+      }
+      return seed;
+    }
+    return 0;
+  }
+
+  private int slotOf(Object key) {
+    if (key == null) {
+      return -1;
+    }
+    var hash = key.hashCode();
+    var slot = mix(hash, seeds[mix(hash, 0) & (seeds.length - 1)]) & (tableSize - 1);
+    if (key.equals(keys[slot])) {
+      return slot;
+    }
+    for(var i = tableSize; i < keys.length; i++) {
+      if (key.equals(keys[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(int slot) {
+    var state = IndexedComputedConstant.state(states, slot);
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(states, slot, slotMapper);
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return slotOf(key) != -1;
+  }
+
+  @Override
+  public V get(Object key) {
+    var slot = slotOf(key);
+    return slot == -1 ? null : value(slot);
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new AbstractSet<>() {
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object key) {
+        return containsKey(key);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Iterator<K> iterator() {
+        return new SlotIterator<>() {
+          @Override
+          K element(int slot) {
+            return (K) keys[slot];
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new SlotIterator<>() {
+          @Override
+          Entry<K, V> element(int slot) {
+            return new LazyEntry(slot);
+          }
+        };
+      }
+    };
+  }
+
+  // iterates over the slots containing a key
+  private abstract class SlotIterator<T> implements Iterator<T> {
+    private int slot = nextSlot(0);
+
+    private int nextSlot(int slot) {
+      while(slot < keys.length && keys[slot] == null) {
+        slot++;
+      }
+      return slot;
+    }
+
+    abstract T element(int slot);
+
+    @Override
+    public boolean hasNext() {
+      return slot < keys.length;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      var element = element(slot);
+      slot = nextSlot(slot + 1);
+      return element;
+    }
+  }
+
+  // an entry which value is only computed when requested
+  private final class LazyEntry implements Entry<K, V> {
+    private final int slot;
+
+    private LazyEntry(int slot) {
+      this.slot = slot;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public K getKey() {
+      return (K) keys[slot];
+    }
+
+    @Override
+    public V getValue() {
+      return value(slot);
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Entry<?, ?> entry && keys[slot].equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return keys[slot].hashCode() ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return keys[slot] + "=" + getValue();
+    }
+  }
+}
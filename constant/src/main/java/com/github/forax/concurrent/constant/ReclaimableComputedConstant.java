@@ -0,0 +1,178 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+import com.github.forax.concurrent.constant.IndexedComputedConstant.StateSlot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Computed constant used by {@link ComputedConstant#ofSoft(Supplier)} and {@link ComputedConstant#ofWeak(Supplier)}.
+ * <p>
+ * Once bound, the state is a {@link Reference} to the value (wrapped like the states of
+ * {@link IndexedComputedConstant}), an error is kept strongly. When the reference is cleared by the GC,
+ * the state is considered unbound and the next access replaces the cleared reference by a {@link State.Binding}
+ * marker using a CAS, so the value is still computed by only one thread.
+ *
+ * @param <V> type of the value
+ */
+final class ReclaimableComputedConstant<V> implements ComputedConstant<V>, StateSlot {
+  private static final VarHandle STATE;
+  static {
+    var lookup = MethodHandles.lookup();
+    try {
+      STATE = lookup.findVarHandle(ReclaimableComputedConstant.class, "state", Object.class);
+    } catch (NoSuchFieldException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private final Supplier<? extends V> supplier;
+  private final Function<Object, ? extends Reference<Object>> referenceFactory;
+  private volatile Object state;  // null, State.Binding, State.Error or a Reference
+
+  ReclaimableComputedConstant(Supplier<? extends V> supplier, Function<Object, ? extends Reference<Object>> referenceFactory) {
+    this.supplier = supplier;
+    this.referenceFactory = referenceFactory;
+  }
+
+  // returns the state or null if unbound or reclaimed
+  private static Object referent(Object state) {
+    return state instanceof Reference<?> reference ? reference.get() : state;
+  }
+
+  @Override
+  public Object loadState() {
+    return state;
+  }
+
+  // unbound or reclaimed is null
+  @Override
+  public Object unwrapState(Object rawState) {
+    return referent(rawState);
+  }
+
+  @Override
+  public boolean compareAndSetState(Object expectedRawState, Object rawState) {
+    return STATE.compareAndSet(this, expectedRawState, rawState);
+  }
+
+  @Override
+  public Object computeState() {
+    Object referent;
+    try {
+      referent = IndexedComputedConstant.wrap(supplier.get());
+      this.state = referenceFactory.apply(referent);
+    } catch (Throwable t) {
+      referent = new State.Error(t);
+      this.state = referent;
+    }
+    return referent;
+  }
+
+  private Object state() {
+    var state = referent(this.state);
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(this);
+    }
+    return state;
+  }
+
+  @Override
+  public boolean isBinding() {
+    return state instanceof State.Binding;
+  }
+  @Override
+  public boolean isBound() {
+    var state = referent(this.state);
+    return state != null && !(state instanceof State.Binding);
+  }
+  @Override
+  public boolean isError() {
+    return state instanceof State.Error;
+  }
+  @Override
+  public boolean isUnbound() {
+    return referent(state) == null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get() {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public Optional<V> tryGet() {
+    return IndexedComputedConstant.tryGet(referent(state));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Duration timeout) throws InterruptedException, TimeoutException {
+    var state = referent(this.state);
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(this, IndexedComputedConstant.deadline(timeout));
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public boolean trySet(V value) {
+    var referent = IndexedComputedConstant.wrap(value);
+    for(;;) {
+      var state = this.state;
+      if (referent(state) != null) {
+        return false;
+      }
+      if (STATE.compareAndSet(this, state, referenceFactory.apply(referent))) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V orElse(V other) {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      return other;
+    }
+    return (V) state;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      throw exceptionSupplier.get();
+    }
+    return (V) state;
+  }
+}
@@ -0,0 +1,200 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+import com.github.forax.concurrent.constant.IndexedComputedConstant.StateSlot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Computed constant used by {@link ComputedConstant#ofRefreshing(Supplier, Duration, Executor)}.
+ * <p>
+ * The first binding is done like {@link SingleComputedConstant}, after that the state is a {@link Snapshot},
+ * a bound state with a deadline. A reader that sees an expired snapshot submits a refresh to the executor
+ * (at most one refresh at a time) and returns the value of the snapshot, so readers only wait for the first binding.
+ * If the refresh fails, the previous state is kept with a new deadline.
+ * <p>
+ * The fast path is a volatile read of the state plus a call to {@link System#nanoTime()} to check the deadline,
+ * expiring the snapshots with a timer instead would remove the clock read but would make the expiration
+ * asynchronous and keep a timer task per constant.
+ *
+ * @param <V> type of the value
+ */
+final class RefreshingComputedConstant<V> implements ComputedConstant<V>, StateSlot {
+  private static final VarHandle STATE, REFRESHING;
+  static {
+    var lookup = MethodHandles.lookup();
+    try {
+      STATE = lookup.findVarHandle(RefreshingComputedConstant.class, "state", Object.class);
+      REFRESHING = lookup.findVarHandle(RefreshingComputedConstant.class, "refreshing", boolean.class);
+    } catch (NoSuchFieldException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  // deadlines are compared using a difference of nanoTime()
+  private static final Duration MAX_TTL = Duration.ofNanos(Long.MAX_VALUE / 2);
+
+  private record Snapshot(Object state, long deadline) {}
+
+  private final Supplier<? extends V> supplier;
+  private final long ttl;
+  private final Executor executor;
+  private volatile Object state;  // null, State.Binding or Snapshot
+  private volatile boolean refreshing;
+
+  RefreshingComputedConstant(Supplier<? extends V> supplier, Duration ttl, Executor executor) {
+    this.supplier = supplier;
+    this.ttl = ttl.compareTo(MAX_TTL) < 0 ? ttl.toNanos() : MAX_TTL.toNanos();
+    this.executor = executor;
+  }
+
+  private Object compute() {
+    try {
+      return IndexedComputedConstant.wrap(supplier.get());
+    } catch (Throwable t) {
+      return new State.Error(t);
+    }
+  }
+
+  @Override
+  public Object loadState() {
+    return state;
+  }
+
+  @Override
+  public boolean compareAndSetState(Object expectedRawState, Object rawState) {
+    return STATE.compareAndSet(this, expectedRawState, rawState);
+  }
+
+  // the first snapshot
+  @Override
+  public Object computeState() {
+    var snapshot = new Snapshot(compute(), System.nanoTime() + ttl);
+    this.state = snapshot;
+    return snapshot;
+  }
+
+  private Object state() {
+    var state = this.state;
+    return checkDeadline(state instanceof Snapshot s ? s : (Snapshot) IndexedComputedConstant.computeIfUnbound(this));
+  }
+
+  private Object state(long deadline) throws InterruptedException, TimeoutException {
+    var state = this.state;
+    return checkDeadline(state instanceof Snapshot s ? s : (Snapshot) IndexedComputedConstant.computeIfUnbound(this, deadline));
+  }
+
+  private Object checkDeadline(Snapshot snapshot) {
+    if (System.nanoTime() - snapshot.deadline >= 0) {
+      refresh(snapshot);
+    }
+    return snapshot.state;
+  }
+
+  private void refresh(Snapshot snapshot) {
+    if (refreshing || !REFRESHING.compareAndSet(this, false, true)) {
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          var state = compute();
+          if (state instanceof State.Error && !(snapshot.state instanceof State.Error)) {
+            state = snapshot.state;  // keep the last good value
+          }
+          this.state = new Snapshot(state, System.nanoTime() + ttl);
+        } finally {
+          refreshing = false;
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      refreshing = false;
+    }
+  }
+
+  @Override
+  public boolean isBinding() {
+    return state instanceof State.Binding;
+  }
+  @Override
+  public boolean isBound() {
+    return state instanceof Snapshot;
+  }
+  @Override
+  public boolean isError() {
+    return state instanceof Snapshot snapshot && snapshot.state instanceof State.Error;
+  }
+  @Override
+  public boolean isUnbound() {
+    return state == null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get() {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public Optional<V> tryGet() {
+    return IndexedComputedConstant.tryGet(state instanceof Snapshot snapshot ? snapshot.state : null);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Duration timeout) throws InterruptedException, TimeoutException {
+    var state = state(IndexedComputedConstant.deadline(timeout));
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public boolean trySet(V value) {
+    return STATE.compareAndSet(this, null, new Snapshot(IndexedComputedConstant.wrap(value), System.nanoTime() + ttl));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V orElse(V other) {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      return other;
+    }
+    return (V) state;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      throw exceptionSupplier.get();
+    }
+    return (V) state;
+  }
+}
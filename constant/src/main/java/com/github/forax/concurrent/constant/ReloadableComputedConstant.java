@@ -0,0 +1,20 @@
+package com.github.forax.concurrent.constant;
+
+import java.util.function.Supplier;
+
+/**
+ * A computed constant that can be invalidated, the next access after {@link #invalidate()} computes the value again.
+ * While the constant is valid, if it is stored in a static final field, {@link #get()} is folded by the JIT
+ * to the value, an invalidation deoptimizes the code that depends on the value.
+ *
+ * @param <V> type of the value
+ * @see ComputedConstant#ofReloadable(Supplier)
+ */
+public sealed interface ReloadableComputedConstant<V> extends ComputedConstant<V> permits SwitchPointComputedConstant {
+  /**
+   * Unbinds the computed constant, if the value is being computed, waits until it is bound before unbinding it.
+   *
+   * @throws IllegalStateException if called while the current thread computes the value of this constant
+   */
+  void invalidate();
+}
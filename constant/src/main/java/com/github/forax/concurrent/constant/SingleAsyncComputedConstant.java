@@ -0,0 +1,150 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Computed constant used by {@link ComputedConstant#ofAsync(Supplier, Executor)}.
+ * <p>
+ * The binding is delegated to a {@link SingleComputedConstant}. The first call to {@link #getAsync()}
+ * installs a future and its {@link CompletableFuture#minimalCompletionStage() minimal stage} by CAS
+ * then submits a task that binds the constant and completes the future, the next calls return the same stage.
+ * Because the task uses the same binding engine as {@link #get()}, the value is computed only once.
+ *
+ * @param <V> type of the value
+ */
+final class SingleAsyncComputedConstant<V> implements AsyncComputedConstant<V> {
+  private static final VarHandle ASYNC;
+  static {
+    var lookup = MethodHandles.lookup();
+    try {
+      ASYNC = lookup.findVarHandle(SingleAsyncComputedConstant.class, "async", Async.class);
+    } catch (NoSuchFieldException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private record Async<V>(CompletableFuture<V> future, CompletionStage<V> stage) {}
+
+  private final SingleComputedConstant<V> constant;
+  private final Executor executor;
+  private volatile Async<V> async;
+
+  SingleAsyncComputedConstant(Supplier<? extends V> supplier, Executor executor) {
+    this.constant = new SingleComputedConstant<>(supplier);
+    this.executor = executor;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> void complete(CompletableFuture<V> future, Object state) {
+    if (state == State.NullObject.NULL) {
+      future.complete(null);
+      return;
+    }
+    if (state instanceof State.Error error) {
+      future.completeExceptionally(error.throwable());
+      return;
+    }
+    future.complete((V) state);
+  }
+
+  @Override
+  public CompletionStage<V> getAsync() {
+    var async = this.async;
+    if (async != null) {
+      return async.stage;
+    }
+    var future = new CompletableFuture<V>();
+    async = new Async<>(future, future.minimalCompletionStage());
+    if (!ASYNC.compareAndSet(this, null, async)) {
+      return this.async.stage;
+    }
+    var state = constant.loadState();
+    if (state != null && !(state instanceof State.Binding)) {
+      complete(future, state);
+      return async.stage;
+    }
+    try {
+      executor.execute(() -> complete(future, constant.computeIfUnbound()));
+    } catch (RejectedExecutionException e) {
+      // the callers that already see the stage get the failure, a later call can retry
+      future.completeExceptionally(e);
+      ASYNC.compareAndSet(this, async, null);
+    }
+    return async.stage;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V getNow(V valueIfUnbound) {
+    var state = constant.loadState();
+    if (state == null || state instanceof State.Binding) {
+      getAsync();
+      return valueIfUnbound;
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public boolean isBinding() {
+    return constant.isBinding();
+  }
+  @Override
+  public boolean isBound() {
+    return constant.isBound();
+  }
+  @Override
+  public boolean isError() {
+    return constant.isError();
+  }
+  @Override
+  public boolean isUnbound() {
+    return constant.isUnbound();
+  }
+
+  @Override
+  public V get() {
+    return constant.get();
+  }
+
+  @Override
+  public Optional<V> tryGet() {
+    return constant.tryGet();
+  }
+
+  @Override
+  public V get(Duration timeout) throws InterruptedException, TimeoutException {
+    return constant.get(timeout);
+  }
+
+  @Override
+  public boolean trySet(V value) {
+    return constant.trySet(value);
+  }
+
+  @Override
+  public V orElse(V other) {
+    return constant.orElse(other);
+  }
+
+  @Override
+  public <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+    return constant.orElseThrow(exceptionSupplier);
+  }
+}
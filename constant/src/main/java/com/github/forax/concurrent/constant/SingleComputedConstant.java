@@ -0,0 +1,179 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+import com.github.forax.concurrent.constant.IndexedComputedConstant.StateSlot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Computed constant with only one state, used by {@link ComputedConstant#of(Supplier)},
+ * {@link ComputedConstant#map(java.util.function.Function)} and {@link ComputedConstant#combine}.
+ * The state uses the same encoding as the states of {@link IndexedComputedConstant}.
+ *
+ * @param <V> type of the value
+ */
+final class SingleComputedConstant<V> implements ComputedConstant<V>, StateSlot {
+  private static final VarHandle STATE;
+  static {
+    var lookup = MethodHandles.lookup();
+    try {
+      STATE = lookup.findVarHandle(SingleComputedConstant.class, "state", Object.class);
+    } catch (NoSuchFieldException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private final Supplier<? extends V> supplier;
+  private final Object dependency;  // null, a ComputedConstant or an array of ComputedConstant
+  private volatile Object state;
+
+  SingleComputedConstant(Supplier<? extends V> supplier) {
+    this(supplier, null);
+  }
+
+  /**
+   * Creates a computed constant which supplier uses the value of {@code dependency}, either null,
+   * a computed constant or an array of computed constants, so {@code map()} does not allocate a list.
+   */
+  SingleComputedConstant(Supplier<? extends V> supplier, Object dependency) {
+    this.supplier = supplier;
+    this.dependency = dependency;
+  }
+
+  List<ComputedConstant<?>> dependencies() {
+    if (dependency == null) {
+      return List.of();
+    }
+    if (dependency instanceof ComputedConstant<?> constant) {
+      return List.of(constant);
+    }
+    return List.of((ComputedConstant<?>[]) dependency);
+  }
+
+  @Override
+  public Object loadState() {
+    return state;
+  }
+
+  @Override
+  public boolean compareAndSetState(Object expectedRawState, Object rawState) {
+    return STATE.compareAndSet(this, expectedRawState, rawState);
+  }
+
+  @Override
+  public Object computeState() {
+    Object state;
+    try {
+      state = IndexedComputedConstant.wrap(supplier.get());
+    } catch (Throwable t) {
+      state = new State.Error(t);
+    }
+    this.state = state;
+    return state;
+  }
+
+  /**
+   * Returns the bound state, computing it if necessary, never null or a binding marker.
+   */
+  Object computeIfUnbound() {
+    return IndexedComputedConstant.computeIfUnbound(this);
+  }
+
+  @Override
+  public boolean isBinding() {
+    return state instanceof State.Binding;
+  }
+  @Override
+  public boolean isBound() {
+    var state = this.state;
+    return state != null && !(state instanceof State.Binding);
+  }
+  @Override
+  public boolean isError() {
+    return state instanceof State.Error;
+  }
+  @Override
+  public boolean isUnbound() {
+    return state == null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get() {
+    var state = this.state;
+    if (state == null || state instanceof State.Binding) {
+      state = computeIfUnbound();
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public Optional<V> tryGet() {
+    return IndexedComputedConstant.tryGet(state);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Duration timeout) throws InterruptedException, TimeoutException {
+    var state = this.state;
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(this, IndexedComputedConstant.deadline(timeout));
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public boolean trySet(V value) {
+    return STATE.compareAndSet(this, null, IndexedComputedConstant.wrap(value));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V orElse(V other) {
+    var state = this.state;
+    if (state == null || state instanceof State.Binding) {
+      state = computeIfUnbound();
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      return other;
+    }
+    return (V) state;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+    var state = this.state;
+    if (state == null || state instanceof State.Binding) {
+      state = computeIfUnbound();
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      throw exceptionSupplier.get();
+    }
+    return (V) state;
+  }
+}
@@ -0,0 +1,120 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+import com.github.forax.concurrent.constant.IndexedComputedConstant.StateSlot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of {@link ComputedDoubleConstant}.
+ * The state uses the encoding of {@link IndexedComputedConstant} but a bound state is always
+ * {@link State.NullObject#NULL}, the value itself is stored in the field {@link #value}.
+ */
+final class SingleComputedDoubleConstant implements ComputedDoubleConstant, StateSlot {
+  private static final VarHandle STATE;
+  static {
+    var lookup = MethodHandles.lookup();
+    try {
+      STATE = lookup.findVarHandle(SingleComputedDoubleConstant.class, "state", Object.class);
+    } catch (NoSuchFieldException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private final DoubleSupplier supplier;
+  private double value;  // published by the volatile write of state
+  private volatile Object state;
+
+  SingleComputedDoubleConstant(DoubleSupplier supplier) {
+    this.supplier = supplier;
+  }
+
+  @Override
+  public Object loadState() {
+    return state;
+  }
+
+  @Override
+  public boolean compareAndSetState(Object expectedRawState, Object rawState) {
+    return STATE.compareAndSet(this, expectedRawState, rawState);
+  }
+
+  @Override
+  public Object computeState() {
+    Object state;
+    try {
+      value = supplier.getAsDouble();
+      state = State.NullObject.NULL;
+    } catch (Throwable t) {
+      state = new State.Error(t);
+    }
+    this.state = state;
+    return state;
+  }
+
+  @Override
+  public boolean isBinding() {
+    return state instanceof State.Binding;
+  }
+  @Override
+  public boolean isBound() {
+    var state = this.state;
+    return state != null && !(state instanceof State.Binding);
+  }
+  @Override
+  public boolean isError() {
+    return state instanceof State.Error;
+  }
+  @Override
+  public boolean isUnbound() {
+    return state == null;
+  }
+
+  @Override
+  public double getAsDouble() {
+    var state = this.state;
+    if (state == State.NullObject.NULL) {
+      return value;
+    }
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(this);
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return value;
+  }
+
+  @Override
+  public double orElse(double other) {
+    var state = this.state;
+    if (state == State.NullObject.NULL) {
+      return value;
+    }
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(this);
+    }
+    if (state instanceof State.Error) {
+      return other;
+    }
+    return value;
+  }
+
+  @Override
+  public <X extends Throwable> double orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+    var state = this.state;
+    if (state == State.NullObject.NULL) {
+      return value;
+    }
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(this);
+    }
+    if (state instanceof State.Error) {
+      throw exceptionSupplier.get();
+    }
+    return value;
+  }
+}
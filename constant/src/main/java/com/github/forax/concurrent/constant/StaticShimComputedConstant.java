@@ -5,7 +5,10 @@ import com.github.forax.concurrent.constant.ComputedConstantMetafactory.State;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 /**
@@ -15,11 +18,13 @@ import java.util.function.Supplier;
  */
 final class StaticShimComputedConstant<V> implements ComputedConstant<V> {
   private final ConcurrentHashMap<String, Object> concurrentHashMap;
+  private final Class<?> declaringClass;
   private final String staticFieldName;
   private final MethodHandle staticFieldInit;
 
   public StaticShimComputedConstant(MethodHandles.Lookup lookup, Class<?> declaringClass, String staticFieldName) {
     this.concurrentHashMap = ComputedConstantMetafactory.CLASS_VALUE.get(declaringClass);
+    this.declaringClass = declaringClass;
     this.staticFieldName = staticFieldName;
     // Trying to get the $staticInit$ early allows to check that the calling lookup can access
     // to the declaring class internals
@@ -37,7 +42,7 @@ final class StaticShimComputedConstant<V> implements ComputedConstant<V> {
   @Override
   @SuppressWarnings("unchecked")
   public V get() {
-    var state = ComputedConstantMetafactory.computeIfUnbound(concurrentHashMap, staticFieldName, staticFieldInit);
+    var state = ComputedConstantMetafactory.computeIfUnbound(concurrentHashMap, declaringClass, staticFieldName, staticFieldInit);
     if (state == State.Null.NULL) {
       return null;
     }
@@ -47,10 +52,41 @@ final class StaticShimComputedConstant<V> implements ComputedConstant<V> {
     return (V) state;
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public Optional<V> tryGet() {
+    var state = concurrentHashMap.get(staticFieldName);
+    if (state == null || state instanceof IndexedComputedConstant.State.Binding || state == State.Null.NULL) {
+      return Optional.empty();
+    }
+    if (state instanceof State.Error error) {
+      throw ComputedConstantMetafactory.rethrow(error.throwable());
+    }
+    return Optional.of((V) state);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Duration timeout) throws InterruptedException, TimeoutException {
+    var state = ComputedConstantMetafactory.computeIfUnbound(concurrentHashMap, declaringClass, staticFieldName, staticFieldInit, IndexedComputedConstant.deadline(timeout));
+    if (state == State.Null.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw ComputedConstantMetafactory.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public boolean trySet(V value) {
+    return concurrentHashMap.putIfAbsent(staticFieldName, value == null ? State.Null.NULL : value) == null;
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public V orElse(V other) {
-    var state = ComputedConstantMetafactory.computeIfUnbound(concurrentHashMap, staticFieldName, staticFieldInit);
+    var state = ComputedConstantMetafactory.computeIfUnbound(concurrentHashMap, declaringClass, staticFieldName, staticFieldInit);
     if (state == State.Null.NULL) {
       return null;
     }
@@ -63,7 +99,7 @@ final class StaticShimComputedConstant<V> implements ComputedConstant<V> {
   @Override
   @SuppressWarnings("unchecked")
   public <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
-    var state = ComputedConstantMetafactory.computeIfUnbound(concurrentHashMap, staticFieldName, staticFieldInit);
+    var state = ComputedConstantMetafactory.computeIfUnbound(concurrentHashMap, declaringClass, staticFieldName, staticFieldInit);
     if (state == State.Null.NULL) {
       return null;
     }
@@ -75,12 +111,13 @@ final class StaticShimComputedConstant<V> implements ComputedConstant<V> {
 
   @Override
   public boolean isBinding() {
-    return concurrentHashMap.get(staticFieldName) == null && concurrentHashMap.containsKey(staticFieldName);
+    return concurrentHashMap.get(staticFieldName) instanceof IndexedComputedConstant.State.Binding;
   }
 
   @Override
   public boolean isBound() {
-    return concurrentHashMap.get(staticFieldName) != null;
+    var state = concurrentHashMap.get(staticFieldName);
+    return state != null && !(state instanceof IndexedComputedConstant.State.Binding);
   }
 
   @Override
@@ -90,6 +127,6 @@ final class StaticShimComputedConstant<V> implements ComputedConstant<V> {
 
   @Override
   public boolean isUnbound() {
-    return concurrentHashMap.get(staticFieldName) == null && !concurrentHashMap.containsKey(staticFieldName);
+    return concurrentHashMap.get(staticFieldName) == null;
   }
 }
@@ -0,0 +1,52 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Supplier used by {@link ComputedConstant#ofStriped(int, Supplier)}, a value is computed at most once per stripe.
+ * <p>
+ * The stripe of a thread is chosen by mixing its id, like the cells of {@link java.util.concurrent.atomic.LongAdder}
+ * but without storing a probe in the thread, the states of the stripes use the binding engine of
+ * {@link IndexedComputedConstant}.
+ *
+ * @param <V> type of the values
+ */
+final class StripedComputedConstant<V> implements Supplier<V> {
+  private final Object[] states;
+  private final IntFunction<? extends V> mapper;
+
+  StripedComputedConstant(int stripes, Supplier<? extends V> supplier) {
+    this.states = new Object[stripes];
+    this.mapper = __ -> supplier.get();
+  }
+
+  @SuppressWarnings("deprecation")  // Thread.threadId() requires Java 19
+  private static int probe() {
+    var id = Thread.currentThread().getId();
+    return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+  }
+
+  int stripe() {
+    return probe() & (states.length - 1);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get() {
+    var stripe = stripe();
+    var state = IndexedComputedConstant.state(states, stripe);
+    if (state == null || state instanceof State.Binding) {
+      state = IndexedComputedConstant.computeIfUnbound(states, stripe, mapper);
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+}
@@ -0,0 +1,168 @@
+package com.github.forax.concurrent.constant;
+
+import com.github.forax.concurrent.constant.IndexedComputedConstant.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.SwitchPoint;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Reloadable computed constant used by {@link ComputedConstant#ofReloadable(Supplier)}.
+ * <p>
+ * Like {@link FoldableComputedConstant}, the state is read through the invoker of a {@link MutableCallSite},
+ * once bound the target is a constant method handle of the state guarded by the current {@link SwitchPoint}.
+ * {@link #invalidate()} unbinds the state then replaces and invalidates the switch point.
+ * The switch point is read before the state when binding, so a state unbound concurrently is either
+ * recomputed or guarded by an invalidated switch point.
+ *
+ * @param <V> type of the value
+ */
+record SwitchPointComputedConstant<V>(Object[] states, IntFunction<? extends V> mapper, AtomicReference<SwitchPoint> switchPoint, MethodHandle invoker) implements ReloadableComputedConstant<V> {
+  private static final MethodHandle BIND;
+  static {
+    var lookup = MethodHandles.lookup();
+    try {
+      BIND = lookup.findStatic(SwitchPointComputedConstant.class, "bind",
+          methodType(Object.class, MutableCallSite.class, AtomicReference.class, Object[].class, IntFunction.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  static <V> SwitchPointComputedConstant<V> of(Supplier<? extends V> supplier) {
+    var states = new Object[1];
+    var switchPoint = new AtomicReference<>(new SwitchPoint());
+    IntFunction<? extends V> mapper = __ -> supplier.get();
+    var callSite = new MutableCallSite(methodType(Object.class));
+    callSite.setTarget(MethodHandles.insertArguments(BIND, 0, callSite, switchPoint, states, mapper));
+    return new SwitchPointComputedConstant<>(states, mapper, switchPoint, callSite.dynamicInvoker());
+  }
+
+  private static Object bind(MutableCallSite callSite, AtomicReference<SwitchPoint> switchPointRef, Object[] states, IntFunction<?> mapper) {
+    var switchPoint = switchPointRef.get();
+    var state = IndexedComputedConstant.computeIfUnbound(states, 0, mapper);
+    var fallback = MethodHandles.insertArguments(BIND, 0, callSite, switchPointRef, states, mapper);
+    callSite.setTarget(switchPoint.guardWithTest(MethodHandles.constant(Object.class, state), fallback));
+    return state;
+  }
+
+  @Override
+  public void invalidate() {
+    for(;;) {
+      var state = IndexedComputedConstant.state(states, 0);
+      if (state == null) {
+        break;
+      }
+      if (state instanceof State.Binding binding) {
+        binding.await();
+        continue;
+      }
+      if (IndexedComputedConstant.compareAndSetState(states, 0, state, null)) {
+        break;
+      }
+    }
+    var oldSwitchPoint = switchPoint.getAndSet(new SwitchPoint());
+    SwitchPoint.invalidateAll(new SwitchPoint[] { oldSwitchPoint });
+  }
+
+  private Object state() {
+    try {
+      return (Object) invoker.invokeExact();
+    } catch (Throwable t) {
+      throw IndexedComputedConstant.rethrow(t);
+    }
+  }
+
+  @Override
+  public boolean isBinding() {
+    return IndexedComputedConstant.state(states, 0) instanceof State.Binding;
+  }
+  @Override
+  public boolean isBound() {
+    var state = IndexedComputedConstant.state(states, 0);
+    return state != null && !(state instanceof State.Binding);
+  }
+  @Override
+  public boolean isError() {
+    return IndexedComputedConstant.state(states, 0) instanceof State.Error;
+  }
+  @Override
+  public boolean isUnbound() {
+    return IndexedComputedConstant.state(states, 0) == null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get() {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public Optional<V> tryGet() {
+    return IndexedComputedConstant.tryGet(IndexedComputedConstant.state(states, 0));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Duration timeout) throws InterruptedException, TimeoutException {
+    var state = IndexedComputedConstant.state(states, 0);
+    if (state == null || state instanceof State.Binding) {
+      // the call site is relinked by the next call to the invoker
+      state = IndexedComputedConstant.computeIfUnbound(states, 0, 0, mapper, IndexedComputedConstant.deadline(timeout));
+    }
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error error) {
+      throw IndexedComputedConstant.rethrow(error.throwable());
+    }
+    return (V) state;
+  }
+
+  @Override
+  public boolean trySet(V value) {
+    return IndexedComputedConstant.compareAndSetState(states, 0, null, IndexedComputedConstant.wrap(value));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V orElse(V other) {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      return other;
+    }
+    return (V) state;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <X extends Throwable> V orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+    var state = state();
+    if (state == State.NullObject.NULL) {
+      return null;
+    }
+    if (state instanceof State.Error) {
+      throw exceptionSupplier.get();
+    }
+    return (V) state;
+  }
+}
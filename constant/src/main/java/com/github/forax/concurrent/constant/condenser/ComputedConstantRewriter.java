@@ -2,6 +2,9 @@ package com.github.forax.concurrent.constant.condenser;
 
 import com.github.forax.concurrent.constant.ComputedConstant;
 import com.github.forax.concurrent.constant.ComputedConstantMetafactory;
+import com.github.forax.concurrent.constant.ComputedDoubleConstant;
+import com.github.forax.concurrent.constant.ComputedIntConstant;
+import com.github.forax.concurrent.constant.ComputedLongConstant;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
@@ -24,18 +27,24 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.lang.invoke.MethodType.methodType;
+import static org.objectweb.asm.Opcodes.AASTORE;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_INTERFACE;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_STATIC;
 import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ANEWARRAY;
 import static org.objectweb.asm.Opcodes.ARETURN;
 import static org.objectweb.asm.Opcodes.ASM9;
 import static org.objectweb.asm.Opcodes.ATHROW;
@@ -93,15 +102,82 @@ import static org.objectweb.asm.Opcodes.PUTSTATIC;
  * </ul>
  * Those conditions ensure that all static final fields containing a compute constant are correctly removed
  * from {@code <clinit>}.
+ * <p>
+ * The primitive computed constants ({@link ComputedIntConstant}, {@link ComputedLongConstant} and
+ * {@link ComputedDoubleConstant}) are rewritten the same way, {@code getAsInt}/{@code getAsLong}/{@code getAsDouble}
+ * being folded to a primitive constant. Because there is no shim for them, the rewriter also gives up if such
+ * static field is used without calling one of its getters.
+ * <p>
+ * A rewritten class also gets a method {@code $constantNames$} returning the names of its static fields
+ * and the rewriter writes, in the directory of each package, a resource {@link #CONSTANT_INDEX} listing
+ * the classes of the package that have computed constants, so they can be bound ahead of time.
  */
 public class ComputedConstantRewriter {
 
   public static final String LAMBDA_META_FACTORY = LambdaMetafactory.class.getName().replace('.', '/');
 
+  /**
+   * Name of the resource, in the directory of a package, listing the classes of the package
+   * that have computed constants, see {@link com.github.forax.concurrent.constant.ConstantWarmer}.
+   */
+  public static final String CONSTANT_INDEX = "computed-constants.index";
+
+  /**
+   * The kind of computed constant, a computed constant of references or a computed constant specialized
+   * for a primitive type.
+   */
+  enum Kind {
+    REFERENCE(ComputedConstant.class, Supplier.class, "get"),
+    INT(ComputedIntConstant.class, IntSupplier.class, "getAsInt"),
+    LONG(ComputedLongConstant.class, LongSupplier.class, "getAsLong"),
+    DOUBLE(ComputedDoubleConstant.class, DoubleSupplier.class, "getAsDouble");
+
+    private final String descriptor;
+    private final String internalName;
+    private final String supplierInternalName;
+    private final String getterName;
+
+    Kind(Class<?> constantClass, Class<?> supplierClass, String getterName) {
+      this.descriptor = constantClass.descriptorString();
+      this.internalName = constantClass.getName().replace('.', '/');
+      this.supplierInternalName = supplierClass.getName().replace('.', '/');
+      this.getterName = getterName;
+    }
+
+    private static final Kind[] KINDS = values();
+
+    static Kind fromDescriptor(String descriptor) {
+      for(var kind: KINDS) {
+        if (kind.descriptor.equals(descriptor)) {
+          return kind;
+        }
+      }
+      return null;
+    }
+
+    static Kind fromInternalName(String internalName) {
+      for(var kind: KINDS) {
+        if (kind.internalName.equals(internalName)) {
+          return kind;
+        }
+      }
+      return null;
+    }
+
+    static boolean isSupplier(String internalName) {
+      for(var kind: KINDS) {
+        if (kind.supplierInternalName.equals(internalName)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   sealed interface Constant {
     Consumer<MethodVisitor> materialize();
 
-    record StaticField(String owner, String name, Consumer<MethodVisitor> materialize) implements Constant {}
+    record StaticField(Kind kind, String owner, String name, Consumer<MethodVisitor> materialize) implements Constant {}
     record PresetSupplier(Handle lambdaImplementation, Consumer<MethodVisitor> materialize) implements Constant {
       PresetSupplier andThen(Consumer<MethodVisitor> materialize) {
         return new PresetSupplier(lambdaImplementation, this.materialize.andThen(materialize));
@@ -109,11 +185,7 @@ public class ComputedConstantRewriter {
     }
   }
 
-  private static final String COMPUTED_CONSTANT_DESCRIPTOR = ComputedConstant.class.descriptorString();
-  private static final String COMPUTED_CONSTANT_INTERNAL_NAME = ComputedConstant.class.getName().replace('.', '/');
-  private static final String SUPPLIER_INTERNAL_NAME = Supplier.class.getName().replace('.', '/');
-
-  private static final MethodHandleInfo OF, GET, OR_ELSE, OR_ELSE_THROW;
+  private static final MethodHandleInfo OF, OR_ELSE, OR_ELSE_THROW;
   private static final MethodHandleInfo OF_SHIM, METHOD_HANDLES_LOOKUP;
 
   private static final Handle CONSTANT_METHOD_BSM;
@@ -134,8 +206,6 @@ public class ComputedConstantRewriter {
     }
 
     try {
-      GET = lookup.revealDirect(lookup.findVirtual(ComputedConstant.class, "get",
-          methodType(Object.class)));
       OR_ELSE = lookup.revealDirect(lookup.findVirtual(ComputedConstant.class, "orElse",
           methodType(Object.class, Object.class)));
       OR_ELSE_THROW  = lookup.revealDirect(lookup.findVirtual(ComputedConstant.class, "orElseThrow",
@@ -185,6 +255,24 @@ public class ComputedConstantRewriter {
         methodHandleInfo.getDeclaringClass().isInterface());
   }
 
+  private static void genBoxing(MethodVisitor mv, Type type) {
+    var boxType = switch (type.getSort()) {
+      case Type.BOOLEAN -> "java/lang/Boolean";
+      case Type.CHAR -> "java/lang/Character";
+      case Type.BYTE -> "java/lang/Byte";
+      case Type.SHORT -> "java/lang/Short";
+      case Type.INT -> "java/lang/Integer";
+      case Type.LONG -> "java/lang/Long";
+      case Type.FLOAT -> "java/lang/Float";
+      case Type.DOUBLE -> "java/lang/Double";
+      default -> null;
+    };
+    if (boxType == null) {
+      return;
+    }
+    mv.visitMethodInsn(INVOKESTATIC, boxType, "valueOf", "(" + type.getDescriptor() + ")L" + boxType + ";", false);
+  }
+
   private static final class AnalysisException extends RuntimeException {
     private AnalysisException(String message) {
       super(message);
@@ -195,6 +283,7 @@ public class ComputedConstantRewriter {
     private String currentClass;
     private boolean currentClassIsInterface;
     private boolean changed;
+    private boolean alreadyIndexed;  // already rewritten by a previous run
 
     private final HashMap<String, Constant.PresetSupplier> presetSupplierMap = new HashMap<>();
 
@@ -211,7 +300,7 @@ public class ComputedConstantRewriter {
 
     @Override
     public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
-      if ((access & ACC_STATIC) != 0 && descriptor.equals(COMPUTED_CONSTANT_DESCRIPTOR)) {
+      if ((access & ACC_STATIC) != 0 && Kind.fromDescriptor(descriptor) != null) {
         if ((access & ACC_FINAL) == 0) {
           throw new AnalysisException("static field " + name + " is not declared final");
         }
@@ -224,6 +313,9 @@ public class ComputedConstantRewriter {
 
     @Override
     public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+      if (name.equals("$constantNames$")) {
+        alreadyIndexed = true;
+      }
       var mv = super.visitMethod(access, name, descriptor, signature, exceptions);
       //System.out.println("-> " + currentClass + " method " + name + descriptor);
       var inStaticBlock = name.equals("<clinit>");
@@ -246,8 +338,12 @@ public class ComputedConstantRewriter {
 
         @Override
         public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
-          if (opcode == GETSTATIC && descriptor.equals(COMPUTED_CONSTANT_DESCRIPTOR)) {
-            constant = new Constant.StaticField(owner, name, mv -> {
+          var kind = Kind.fromDescriptor(descriptor);
+          if (opcode == GETSTATIC && kind != null) {
+            constant = new Constant.StaticField(kind, owner, name, mv -> {
+              if (kind != Kind.REFERENCE) {
+                throw new AnalysisException("static field " + name + " can not be materialized");
+              }
               genMethod(mv, METHOD_HANDLES_LOOKUP);
               mv.visitLdcInsn(Type.getObjectType(owner));
               mv.visitLdcInsn(name);
@@ -258,7 +354,7 @@ public class ComputedConstantRewriter {
           }
           if (opcode == PUTSTATIC &&
               owner.equals(currentClass) &&
-              descriptor.equals(ComputedConstant.class.descriptorString())) {
+              kind != null) {
             if (constant instanceof Constant.PresetSupplier presetSupplier) {
               if (!inStaticBlock) {
                 throw new AnalysisException("static field " + name + " initialized outside of <clinit>");
@@ -287,7 +383,7 @@ public class ComputedConstantRewriter {
           if (bootstrapMethodHandle.getOwner().equals(LAMBDA_META_FACTORY) &&
               bootstrapMethodHandle.getName().equals("metafactory")) {
             var returnType = Type.getReturnType(descriptor).getInternalName();
-            if (returnType.equals(SUPPLIER_INTERNAL_NAME)) {
+            if (Kind.isSupplier(returnType)) {
               var implementation = (Handle) bootstrapMethodArguments[1];
 
               constant = new Constant.PresetSupplier(implementation, mv -> mv.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments));
@@ -354,10 +450,13 @@ public class ComputedConstantRewriter {
 
         @Override
         public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
-          if (opcode == INVOKEINTERFACE &&
-              owner.equals(COMPUTED_CONSTANT_INTERNAL_NAME)) {
-            if (name.equals(GET.getName()) || name.equals(OR_ELSE.getName()) || name.equals(OR_ELSE_THROW.getName())) {
-              if (constant instanceof Constant.StaticField constantStaticField && constantStaticField.owner.equals(currentClass)) {
+          var kind = Kind.fromInternalName(owner);
+          if (opcode == INVOKEINTERFACE && kind != null) {
+            // get(Duration) is not a constant access, so the getter is matched with its descriptor
+            if ((name.equals(kind.getterName) && descriptor.startsWith("()")) || name.equals(OR_ELSE.getName()) || name.equals(OR_ELSE_THROW.getName())) {
+              if (constant instanceof Constant.StaticField constantStaticField &&
+                  constantStaticField.kind == kind &&
+                  constantStaticField.owner.equals(currentClass)) {
                 var staticInit = new Handle(H_INVOKESTATIC, currentClass, "$staticInit$", "(Ljava/lang/String;)Ljava/lang/Object;", currentClassIsInterface);
                 var condy = new ConstantDynamic(constantStaticField.name, "Ljava/lang/Object;", CONSTANT_STATE_BSM, staticInit);
 
@@ -370,7 +469,7 @@ public class ComputedConstantRewriter {
           }
           if (opcode == INVOKESTATIC &&
               name.equals(OF.getName()) &&
-              owner.equals(COMPUTED_CONSTANT_INTERNAL_NAME)) {
+              kind != null) {
             if (constant instanceof Constant.PresetSupplier presetSupplier) {
               constant = presetSupplier.andThen(mv -> mv.visitMethodInsn(opcode, owner, name, descriptor, isInterface));
               return;
@@ -379,68 +478,102 @@ public class ComputedConstantRewriter {
           materializeIfNecessary();
           super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
         }
+      };
+    }
 
-        @Override
-        public void visitEnd() {
-          if (!presetSupplierMap.isEmpty()) {
-            var mv = cv.visitMethod(ACC_PUBLIC | ACC_STATIC, "$staticInit$", "(Ljava/lang/String;)Ljava/lang/Object;", null, null);
-            mv.visitCode();
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
-
-            var groupByHashMap = presetSupplierMap.entrySet().stream()
-                .collect(Collectors.groupingBy(entry -> entry.getKey().hashCode(), LinkedHashMap::new, Collectors.toList()));
-            var keys = groupByHashMap.keySet().stream()
-                .mapToInt(k -> k)
-                .toArray();
-            var caseLabels = new Label[keys.length];
-            Arrays.setAll(caseLabels, __ -> new Label());
-            var defaultLabel = new Label();
-            mv.visitLookupSwitchInsn(defaultLabel, keys, caseLabels);
-
-            for(var i = 0; i < keys.length; i++) {
-              mv.visitLabel(caseLabels[i]);
-              var nextLabel = new Label();
-              Label previousLabel = null;
-              for (var entry : groupByHashMap.get(keys[i])) {
-                if (previousLabel != null) {
-                  mv.visitLabel(previousLabel);
-                }
-                mv.visitVarInsn(ALOAD, 0);
-                mv.visitLdcInsn(entry.getKey());
-                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-                mv.visitJumpInsn(IFEQ, nextLabel);
-
-                var implementationHandle = entry.getValue().lambdaImplementation;
-                mv.visitMethodInsn(INVOKESTATIC, implementationHandle.getOwner(), implementationHandle.getName(), implementationHandle.getDesc(), currentClassIsInterface);
-                mv.visitInsn(ARETURN);
-
-                previousLabel = nextLabel;
-                nextLabel = new Label();
-              }
-              mv.visitLabel(previousLabel);
-              mv.visitJumpInsn(GOTO, defaultLabel);  // maybe avoid the last GOTO ?
-            }
+    // generates the method $staticInit$ that calls the preset supplier of a static field from its name
+    private void genStaticInit() {
+      var mv = cv.visitMethod(ACC_PUBLIC | ACC_STATIC, "$staticInit$", "(Ljava/lang/String;)Ljava/lang/Object;", null, null);
+      mv.visitCode();
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+
+      // the keys of a lookupswitch must be sorted
+      var groupByHashMap = presetSupplierMap.entrySet().stream()
+          .collect(Collectors.groupingBy(entry -> entry.getKey().hashCode(), TreeMap::new, Collectors.toList()));
+      var keys = groupByHashMap.keySet().stream()
+          .mapToInt(k -> k)
+          .toArray();
+      var caseLabels = new Label[keys.length];
+      Arrays.setAll(caseLabels, __ -> new Label());
+      var defaultLabel = new Label();
+      mv.visitLookupSwitchInsn(defaultLabel, keys, caseLabels);
+
+      for(var i = 0; i < keys.length; i++) {
+        mv.visitLabel(caseLabels[i]);
+        var nextLabel = new Label();
+        Label previousLabel = null;
+        for (var entry : groupByHashMap.get(keys[i])) {
+          if (previousLabel != null) {
+            mv.visitLabel(previousLabel);
+          }
+          mv.visitVarInsn(ALOAD, 0);
+          mv.visitLdcInsn(entry.getKey());
+          mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
+          mv.visitJumpInsn(IFEQ, nextLabel);
+
+          var implementationHandle = entry.getValue().lambdaImplementation;
+          mv.visitMethodInsn(INVOKESTATIC, implementationHandle.getOwner(), implementationHandle.getName(), implementationHandle.getDesc(), currentClassIsInterface);
+          genBoxing(mv, Type.getReturnType(implementationHandle.getDesc()));
+          mv.visitInsn(ARETURN);
+
+          previousLabel = nextLabel;
+          nextLabel = new Label();
+        }
+        mv.visitLabel(previousLabel);
+        mv.visitJumpInsn(GOTO, defaultLabel);  // maybe avoid the last GOTO ?
+      }
 
-            mv.visitLabel(defaultLabel);
-            mv.visitTypeInsn(NEW, "java/lang/AssertionError");
-            mv.visitInsn(DUP);
+      mv.visitLabel(defaultLabel);
+      mv.visitTypeInsn(NEW, "java/lang/AssertionError");
+      mv.visitInsn(DUP);
 
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/AssertionError", "<init>", "(Ljava/lang/Object;)V", false);
-            mv.visitInsn(ATHROW);
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitMethodInsn(INVOKESPECIAL, "java/lang/AssertionError", "<init>", "(Ljava/lang/Object;)V", false);
+      mv.visitInsn(ATHROW);
 
-            mv.visitMaxs(2, 1);
-            mv.visitEnd();
-            changed = true;
-          }
-          super.visitEnd();
-        }
-      };
+      mv.visitMaxs(2, 1);
+      mv.visitEnd();
+    }
+
+    // generates the method $constantNames$ that returns the names of the static fields, so all the constants
+    // of a class can be bound without knowing its source code
+    private void genConstantNames() {
+      var names = new TreeSet<>(presetSupplierMap.keySet());
+      var mv = cv.visitMethod(ACC_PUBLIC | ACC_STATIC, "$constantNames$", "()[Ljava/lang/String;", null, null);
+      mv.visitCode();
+      mv.visitLdcInsn(names.size());
+      mv.visitTypeInsn(ANEWARRAY, "java/lang/String");
+      var index = 0;
+      for(var name: names) {
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn(index++);
+        mv.visitLdcInsn(name);
+        mv.visitInsn(AASTORE);
+      }
+      mv.visitInsn(ARETURN);
+      mv.visitMaxs(4, 0);
+      mv.visitEnd();
+    }
+
+    @Override
+    public void visitEnd() {
+      // <clinit> is not always the last method, so the generated methods are added once the whole class is visited
+      if (!presetSupplierMap.isEmpty()) {
+        genStaticInit();
+        genConstantNames();
+        changed = true;
+      }
+      super.visitEnd();
     }
   }
 
   public static Optional<byte[]> transform(byte[] classFile) {
+    return transform(classFile, __ -> {});
+  }
+
+  // indexedClassConsumer is called with the internal name of the class if the class has a $constantNames$
+  private static Optional<byte[]> transform(byte[] classFile, Consumer<String> indexedClassConsumer) {
     var reader = new ClassReader(classFile);
     var writer = new ClassWriter(reader, ClassWriter.COMPUTE_FRAMES);
 
@@ -452,6 +585,9 @@ public class ComputedConstantRewriter {
       return Optional.empty();
     }
 
+    if (classRewriter.alreadyIndexed || !classRewriter.presetSupplierMap.isEmpty()) {
+      indexedClassConsumer.accept(classRewriter.currentClass);
+    }
     if (!classRewriter.changed) {
       return Optional.empty();
     }
@@ -462,6 +598,12 @@ public class ComputedConstantRewriter {
     var outputPathDirectory = outputDirectory.orElse(directory);
     Files.createDirectories(outputPathDirectory);
 
+    // package internal name -> class names
+    var indexMap = new TreeMap<String, TreeSet<String>>();
+    Consumer<String> indexedClassConsumer = internalName -> {
+      var packageName = internalName.substring(0, Math.max(0, internalName.lastIndexOf('/')));
+      indexMap.computeIfAbsent(packageName, __ -> new TreeSet<>()).add(internalName.replace('/', '.'));
+    };
     try(var stream = Files.walk(directory)) {
       for(var path: (Iterable<Path>) stream::iterator) {
         if (path.toString().contains("condenser")) {
@@ -471,7 +613,7 @@ public class ComputedConstantRewriter {
           continue;
         }
         var content = Files.readAllBytes(path);
-        var newContent = transform(content);
+        var newContent = transform(content, indexedClassConsumer);
         if (newContent.isPresent()) {
           var relativePath = directory.relativize(path);
           var outputPath = outputPathDirectory.resolve(relativePath);
@@ -481,6 +623,14 @@ public class ComputedConstantRewriter {
         }
       }
     }
+
+    for(var entry: indexMap.entrySet()) {
+      var packageDirectory = outputPathDirectory.resolve(entry.getKey());
+      Files.createDirectories(packageDirectory);
+      var indexPath = packageDirectory.resolve(CONSTANT_INDEX);
+      Files.write(indexPath, entry.getValue());
+      System.out.println(indexPath + " written");
+    }
   }
 
   public static void main(String... args) throws IOException {
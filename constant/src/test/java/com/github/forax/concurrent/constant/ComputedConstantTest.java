@@ -2,10 +2,42 @@ package com.github.forax.concurrent.constant;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public final class ComputedConstantTest {
 
@@ -140,7 +172,9 @@ public final class ComputedConstantTest {
 
     @Test
     public void isBinding() throws InterruptedException {
+      var started = new CountDownLatch(1);
       var constant = ComputedConstant.of(() -> {
+        started.countDown();
         try {
           Thread.sleep(1_000);
         } catch (InterruptedException e) {
@@ -152,11 +186,19 @@ public final class ComputedConstantTest {
         assertEquals(42, constant.get());
       });
       thread.start();
-      Thread.sleep(1);
+      started.await();
       assertTrue(constant.isBinding());
       thread.join();
     }
 
+    @Test
+    public void recursiveBinding() {
+      var box = new Object() { ComputedConstant<Integer> constant; };
+      box.constant = ComputedConstant.of(() -> box.constant.get() + 1);
+      assertThrows(IllegalStateException.class, box.constant::get);
+      assertTrue(box.constant.isError());
+    }
+
     @Test
     public void map() {
       var constant = ComputedConstant.of(() -> 42);
@@ -170,6 +212,17 @@ public final class ComputedConstantTest {
       );
     }
 
+    @Test
+    public void mapFail() {
+      var constant = ComputedConstant.<Integer>of(() -> { throw null; });
+      var constant2 = constant.map(i -> i * 2);
+      assertThrows(NullPointerException.class, constant2::get);
+      assertAll(
+          () -> assertTrue(constant.isError()),
+          () -> assertTrue(constant2.isError())
+      );
+    }
+
     private void testWithALotOfThreads() throws InterruptedException {
       var threadCount = 100;
       var constant = ComputedConstant.of(Thread::currentThread);
@@ -200,14 +253,2075 @@ public final class ComputedConstantTest {
   }
 
   @Nested
-  public class ComputedConstantList {
+  public class ComputedConstantGraph {
     @Test
-    public void ofList() {
-      var count = 1_000;
-      var list = ComputedConstant.ofList(count, i -> i);
-      for(var i = 0; i < count; i++) {
-        assertEquals(i, list.get(i).get());
+    public void combine() {
+      var constant1 = ComputedConstant.of(() -> 40);
+      var constant2 = ComputedConstant.of(() -> 2);
+      var constant3 = ComputedConstant.combine(constant1, constant2, Integer::sum);
+      assertEquals(42, constant3.get());
+      assertTrue(constant1.isBound());
+      assertTrue(constant2.isBound());
+    }
+
+    @Test
+    public void combineFail() {
+      var constant1 = ComputedConstant.<Integer>of(() -> { throw new IllegalStateException(); });
+      var constant2 = ComputedConstant.of(() -> 2);
+      var constant3 = ComputedConstant.combine(constant1, constant2, Integer::sum);
+      assertThrows(IllegalStateException.class, constant3::get);
+      assertTrue(constant3.isError());
+    }
+
+    @Test
+    public void bindGraph() {
+      var counter = new AtomicInteger();
+      var root = ComputedConstant.of(counter::incrementAndGet);
+      var left = root.map(x -> x + 1);
+      var right = root.map(x -> x + 2);
+      var diamond = ComputedConstant.combine(left, right, (a, b) -> a * b);
+      ComputedConstant.bindGraph(List.of(diamond), ForkJoinPool.commonPool()).join();
+      assertAll(
+          () -> assertTrue(root.isBound()),
+          () -> assertTrue(left.isBound()),
+          () -> assertTrue(right.isBound()),
+          () -> assertTrue(diamond.isBound()),
+          () -> assertEquals(6, diamond.get()),
+          () -> assertEquals(1, counter.get())
+      );
+    }
+
+    @Test
+    public void bindGraphIndependentBranchesConcurrently() throws Exception {
+      var started = new CountDownLatch(2);
+      Supplier<Integer> slow = () -> {
+        started.countDown();
+        try {
+          // only possible if the other branch is bound at the same time
+          assertTrue(started.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        return 1;
+      };
+      var constant = ComputedConstant.combine(ComputedConstant.of(slow), ComputedConstant.of(slow), Integer::sum);
+      var executor = Executors.newFixedThreadPool(2);
+      try {
+        ComputedConstant.bindGraph(List.of(constant), executor).get(20, TimeUnit.SECONDS);
+      } finally {
+        executor.shutdown();
+      }
+      assertEquals(2, constant.get());
+    }
+
+    @Test
+    public void bindGraphLongChain() {
+      var constant = ComputedConstant.of(() -> 0);
+      for(var i = 0; i < 10_000; i++) {
+        constant = constant.map(x -> x + 1);
+      }
+      ComputedConstant.bindGraph(List.of(constant), Runnable::run).join();
+      assertTrue(constant.isBound());
+      assertEquals(10_000, constant.get());
+    }
+
+    @Test
+    public void bindGraphError() {
+      var leaf = ComputedConstant.<Integer>of(() -> { throw new IllegalStateException(); });
+      var other = ComputedConstant.of(() -> 1);
+      var constant = ComputedConstant.combine(leaf, other, Integer::sum);
+      ComputedConstant.bindGraph(List.of(constant, other), ForkJoinPool.commonPool()).join();
+      assertAll(
+          () -> assertTrue(leaf.isError()),
+          () -> assertTrue(constant.isError()),
+          () -> assertEquals(1, other.get())
+      );
+    }
+
+    @Test
+    public void bindGraphAlreadyBound() {
+      var counter = new AtomicInteger();
+      var root = ComputedConstant.of(counter::incrementAndGet);
+      var constant = root.map(x -> x * 2);
+      constant.get();
+      ComputedConstant.bindGraph(List.of(constant, root), Runnable::run).join();
+      assertEquals(1, counter.get());
+    }
+  }
+
+  @Nested
+  public class ComputedStripedConstant {
+    @Test
+    public void ofStriped() {
+      var counter = new AtomicInteger();
+      var supplier = ComputedConstant.ofStriped(4, () -> new StringBuilder().append(counter.incrementAndGet()));
+      var value = supplier.get();
+      assertSame(value, supplier.get());
+      assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void ofStripedAtMostOnePerStripe() throws InterruptedException {
+      var counter = new AtomicInteger();
+      var supplier = ComputedConstant.ofStriped(3, () -> {
+        counter.incrementAndGet();
+        return new Object();
+      });
+      var values = Collections.newSetFromMap(new IdentityHashMap<>());
+      var threads = IntStream.range(0, 100)
+          .mapToObj(__ -> new Thread(() -> {
+            var value = supplier.get();
+            synchronized (values) {
+              values.add(value);
+            }
+          }))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      assertTrue(counter.get() <= 4);  // rounded to a power of two
+      assertEquals(counter.get(), values.size());
+    }
+
+    @Test
+    public void ofStripedFail() {
+      var supplier = ComputedConstant.ofStriped(1, () -> { throw new IllegalStateException(); });
+      var e1 = assertThrows(IllegalStateException.class, supplier::get);
+      var e2 = assertThrows(IllegalStateException.class, supplier::get);
+      assertSame(e1, e2);
+    }
+
+    @Test
+    public void ofStripedNull() {
+      var supplier = ComputedConstant.ofStriped(2, () -> null);
+      assertNull(supplier.get());
+    }
+
+    @Test
+    public void ofStripedPrecondition() {
+      assertAll(
+          () -> assertThrows(IllegalArgumentException.class, () -> ComputedConstant.ofStriped(0, () -> 42)),
+          () -> assertThrows(IllegalArgumentException.class, () -> ComputedConstant.ofStriped(Integer.MAX_VALUE, () -> 42)),
+          () -> assertThrows(NullPointerException.class, () -> ComputedConstant.ofStriped(4, null))
+      );
+    }
+  }
+
+  @Nested
+  public class ComputedFoldableConstant {
+    private static final ComputedConstant<String> FOLDABLE = ComputedConstant.ofFoldable(() -> "foo");
+
+    @Test
+    public void ofFoldable() {
+      var constant = ComputedConstant.ofFoldable(() -> 42);
+      assertTrue(constant.isUnbound());
+      assertEquals(42, constant.get());
+      assertEquals(42, constant.get());
+      assertAll(
+          () -> assertFalse(constant.isUnbound()),
+          () -> assertFalse(constant.isBinding()),
+          () -> assertTrue(constant.isBound()),
+          () -> assertFalse(constant.isError())
+      );
+    }
+
+    @Test
+    public void ofFoldableNull() {
+      var constant = ComputedConstant.ofFoldable(() -> null);
+      assertNull(constant.get());
+      assertNull(constant.orElse("bar"));
+    }
+
+    @Test
+    public void ofFoldableFail() {
+      var constant = ComputedConstant.<Integer>ofFoldable(() -> { throw new IllegalStateException(); });
+      var e1 = assertThrows(IllegalStateException.class, constant::get);
+      var e2 = assertThrows(IllegalStateException.class, constant::get);
+      assertSame(e1, e2);
+      assertEquals(-1, constant.orElse(-1));
+      assertThrows(ArithmeticException.class, () -> constant.orElseThrow(ArithmeticException::new));
+      assertTrue(constant.isError());
+    }
+
+    @Test
+    public void ofFoldableRecursiveBinding() {
+      var box = new Object() { ComputedConstant<Integer> constant; };
+      box.constant = ComputedConstant.ofFoldable(() -> box.constant.get() + 1);
+      assertThrows(IllegalStateException.class, box.constant::get);
+      assertTrue(box.constant.isError());
+    }
+
+    @Test
+    public void ofFoldableComputeOnce() throws InterruptedException {
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofFoldable(counter::incrementAndGet);
+      var threads = IntStream.range(0, 16)
+          .mapToObj(__ -> new Thread(() -> assertEquals(1, constant.get())))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void ofFoldableStaticFinal() {
+      var length = 0;
+      for(var i = 0; i < 100_000; i++) {
+        length += FOLDABLE.get().length();
+      }
+      assertEquals(300_000, length);
+    }
+  }
+
+  @Nested
+  public class ComputedReloadableConstant {
+    private static final AtomicInteger VERSION = new AtomicInteger();
+    private static final ReloadableComputedConstant<Integer> RELOADABLE = ComputedConstant.ofReloadable(VERSION::incrementAndGet);
+
+    @Test
+    public void ofReloadable() {
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofReloadable(counter::incrementAndGet);
+      assertTrue(constant.isUnbound());
+      assertEquals(1, constant.get());
+      assertEquals(1, constant.get());
+      assertTrue(constant.isBound());
+      constant.invalidate();
+      assertTrue(constant.isUnbound());
+      assertEquals(2, constant.get());
+      assertEquals(2, constant.get());
+      assertEquals(2, counter.get());
+    }
+
+    @Test
+    public void ofReloadableInvalidateUnbound() {
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofReloadable(counter::incrementAndGet);
+      constant.invalidate();
+      assertEquals(1, constant.get());
+    }
+
+    @Test
+    public void ofReloadableFailThenReload() {
+      var fail = new AtomicInteger(1);
+      var constant = ComputedConstant.ofReloadable(() -> {
+        if (fail.getAndDecrement() > 0) {
+          throw new IllegalStateException();
+        }
+        return "foo";
+      });
+      assertThrows(IllegalStateException.class, constant::get);
+      assertTrue(constant.isError());
+      assertEquals("bar", constant.orElse("bar"));
+      constant.invalidate();
+      assertEquals("foo", constant.get());
+      assertFalse(constant.isError());
+    }
+
+    @Test
+    public void ofReloadableInvalidateWhileBinding() throws InterruptedException {
+      var started = new CountDownLatch(1);
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofReloadable(() -> {
+        started.countDown();
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        return counter.incrementAndGet();
+      });
+      var thread = new Thread(() -> assertEquals(1, constant.get()));
+      thread.start();
+      started.await();
+      constant.invalidate();
+      assertTrue(constant.isUnbound());
+      assertEquals(2, constant.get());
+      thread.join();
+    }
+
+    @Test
+    public void ofReloadableRecursiveInvalidate() {
+      var box = new Object() { ReloadableComputedConstant<Integer> constant; };
+      box.constant = ComputedConstant.ofReloadable(() -> {
+        box.constant.invalidate();
+        return 42;
+      });
+      assertThrows(IllegalStateException.class, box.constant::get);
+    }
+
+    @Test
+    public void ofReloadableStaticFinal() {
+      for(var round = 0; round < 10; round++) {
+        var expected = RELOADABLE.get();
+        for(var i = 0; i < 10_000; i++) {
+          assertEquals(expected, RELOADABLE.get());
+        }
+        RELOADABLE.invalidate();
+        assertEquals(expected + 1, RELOADABLE.get());
+      }
+    }
+  }
+
+  @Nested
+  public class ComputedRefreshingConstant {
+    private static final Duration EXPIRED = Duration.ofNanos(1);
+
+    @Test
+    public void ofRefreshing() {
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofRefreshing(counter::incrementAndGet, Duration.ofDays(1), Runnable::run);
+      assertTrue(constant.isUnbound());
+      assertEquals(1, constant.get());
+      assertEquals(1, constant.get());
+      assertTrue(constant.isBound());
+      assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void ofRefreshingExpired() {
+      var tasks = new ArrayList<Runnable>();
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofRefreshing(counter::incrementAndGet, EXPIRED, tasks::add);
+      assertEquals(1, constant.get());
+      assertEquals(1, constant.get());
+      assertEquals(1, tasks.size());  // only one refresh at a time
+      tasks.remove(0).run();
+      assertEquals(2, constant.get());
+      assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void ofRefreshingFailKeepsValue() {
+      var tasks = new ArrayList<Runnable>();
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofRefreshing(() -> {
+        if (counter.incrementAndGet() > 1) {
+          throw new IllegalStateException();
+        }
+        return "foo";
+      }, EXPIRED, tasks::add);
+      assertEquals("foo", constant.get());
+      tasks.remove(0).run();
+      assertEquals("foo", constant.get());
+      assertFalse(constant.isError());
+    }
+
+    @Test
+    public void ofRefreshingFailThenSucceed() {
+      var tasks = new ArrayList<Runnable>();
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofRefreshing(() -> {
+        if (counter.incrementAndGet() == 1) {
+          throw new IllegalStateException();
+        }
+        return "foo";
+      }, EXPIRED, tasks::add);
+      assertThrows(IllegalStateException.class, constant::get);
+      assertTrue(constant.isError());
+      tasks.remove(0).run();
+      assertEquals("foo", constant.get());
+      assertFalse(constant.isError());
+    }
+
+    @Test
+    public void ofRefreshingReadersDoNotWait() throws InterruptedException {
+      var refreshing = new CountDownLatch(1);
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofRefreshing(() -> {
+        if (counter.incrementAndGet() > 1) {
+          try {
+            refreshing.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+        }
+        return counter.get();
+      }, EXPIRED, task -> new Thread(task).start());
+      assertEquals(1, constant.get());
+      for(var i = 0; i < 1_000; i++) {
+        assertEquals(1, constant.get());
+      }
+      refreshing.countDown();
+    }
+
+    @Test
+    public void ofRefreshingRejected() {
+      var constant = ComputedConstant.ofRefreshing(() -> 42, EXPIRED, task -> { throw new RejectedExecutionException(); });
+      assertEquals(42, constant.get());
+      assertEquals(42, constant.get());
+    }
+
+    @Test
+    public void ofRefreshingPrecondition() {
+      assertAll(
+          () -> assertThrows(IllegalArgumentException.class, () -> ComputedConstant.ofRefreshing(() -> 42, Duration.ZERO, Runnable::run)),
+          () -> assertThrows(NullPointerException.class, () -> ComputedConstant.ofRefreshing(() -> 42, null, Runnable::run)),
+          () -> assertThrows(NullPointerException.class, () -> ComputedConstant.ofRefreshing(() -> 42, EXPIRED, null))
+      );
+    }
+  }
+
+  @Nested
+  public class ComputedReclaimableConstant {
+    private static void gcUntil(ComputedConstant<?> constant) {
+      for(var i = 0; i < 10 && !constant.isUnbound(); i++) {
+        System.gc();
+      }
+      assumeTrue(constant.isUnbound(), "the GC did not clear the reference");
+    }
+
+    @Test
+    public void ofSoft() {
+      var constant = ComputedConstant.ofSoft(() -> "foo");
+      assertTrue(constant.isUnbound());
+      assertEquals("foo", constant.get());
+      assertEquals("foo", constant.get());
+      assertAll(
+          () -> assertFalse(constant.isUnbound()),
+          () -> assertFalse(constant.isBinding()),
+          () -> assertTrue(constant.isBound()),
+          () -> assertFalse(constant.isError())
+      );
+    }
+
+    @Test
+    public void ofWeakReclaimed() {
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofWeak(() -> new Object[] { counter.incrementAndGet() });
+      assertEquals(1, constant.get()[0]);
+      gcUntil(constant);
+      assertEquals(2, constant.get()[0]);
+      assertTrue(constant.isBound());
+    }
+
+    @Test
+    public void ofWeakReclaimedComputeOnce() throws InterruptedException {
+      var counter = new AtomicInteger();
+      var constant = ComputedConstant.ofWeak(() -> new Object[] { counter.incrementAndGet() });
+      constant.get();
+      gcUntil(constant);
+      var threads = IntStream.range(0, 16)
+          .mapToObj(__ -> new Thread(() -> assertNotNull(constant.get())))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      assertTrue(counter.get() >= 2);
+      var value = constant.get();  // keep the value reachable
+      assertEquals(counter.get(), value[0]);
+    }
+
+    @Test
+    public void ofWeakNull() {
+      var constant = ComputedConstant.ofWeak(() -> null);
+      assertNull(constant.get());
+      System.gc();
+      assertTrue(constant.isBound());
+    }
+
+    @Test
+    public void ofWeakFail() {
+      var constant = ComputedConstant.<String>ofWeak(() -> { throw new IllegalStateException(); });
+      var e1 = assertThrows(IllegalStateException.class, constant::get);
+      System.gc();
+      var e2 = assertThrows(IllegalStateException.class, constant::get);
+      assertSame(e1, e2);
+      assertTrue(constant.isError());
+      assertEquals("bar", constant.orElse("bar"));
+    }
+
+    @Test
+    public void ofSoftRecursiveBinding() {
+      var box = new Object() { ComputedConstant<Integer> constant; };
+      box.constant = ComputedConstant.ofSoft(() -> box.constant.get() + 1);
+      assertThrows(IllegalStateException.class, box.constant::get);
+    }
+  }
+
+  @Nested
+  public class ComputedAsyncConstant {
+    @Test
+    public void ofAsync() throws Exception {
+      var tasks = new ArrayList<Runnable>();
+      var constant = ComputedConstant.ofAsync(() -> 42, tasks::add);
+      assertTrue(constant.isUnbound());
+      var stage = constant.getAsync();
+      assertSame(stage, constant.getAsync());
+      assertFalse(stage.toCompletableFuture().isDone());
+      assertEquals(1, tasks.size());
+      tasks.remove(0).run();
+      assertTrue(constant.isBound());
+      assertEquals(42, stage.toCompletableFuture().get());
+      assertSame(stage, constant.getAsync());
+      assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void ofAsyncGetNow() {
+      var tasks = new ArrayList<Runnable>();
+      var constant = ComputedConstant.ofAsync(() -> 42, tasks::add);
+      assertEquals(-1, constant.getNow(-1));
+      assertEquals(-1, constant.getNow(-1));
+      assertEquals(1, tasks.size());
+      tasks.remove(0).run();
+      assertEquals(42, constant.getNow(-1));
+    }
+
+    @Test
+    public void ofAsyncAlreadyBound() throws Exception {
+      var constant = ComputedConstant.ofAsync(() -> "foo", task -> fail());
+      assertEquals("foo", constant.get());
+      var stage = constant.getAsync();
+      assertEquals("foo", stage.toCompletableFuture().get());
+      assertSame(stage, constant.getAsync());
+    }
+
+    @Test
+    public void ofAsyncComputeOnce() throws Exception {
+      var counter = new AtomicInteger();
+      var executor = Executors.newFixedThreadPool(4);
+      try {
+        var constant = ComputedConstant.ofAsync(counter::incrementAndGet, executor);
+        var stage = constant.getAsync();
+        assertEquals(1, constant.get());
+        assertEquals(1, stage.toCompletableFuture().get());
+        assertEquals(1, counter.get());
+      } finally {
+        executor.shutdown();
+      }
+    }
+
+    @Test
+    public void ofAsyncNull() throws Exception {
+      var constant = ComputedConstant.ofAsync(() -> null, Runnable::run);
+      assertNull(constant.getAsync().toCompletableFuture().get());
+      assertNull(constant.getNow("foo"));
+    }
+
+    @Test
+    public void ofAsyncFail() {
+      var constant = ComputedConstant.<String>ofAsync(() -> { throw new IllegalStateException(); }, Runnable::run);
+      var e = assertThrows(ExecutionException.class, () -> constant.getAsync().toCompletableFuture().get());
+      assertTrue(e.getCause() instanceof IllegalStateException);
+      assertSame(e.getCause(), assertThrows(IllegalStateException.class, () -> constant.getNow("foo")));
+      assertTrue(constant.isError());
+    }
+
+    @Test
+    public void ofAsyncRejected() throws Exception {
+      var rejected = new AtomicInteger(1);
+      var constant = ComputedConstant.ofAsync(() -> 42, task -> {
+        if (rejected.getAndDecrement() > 0) {
+          throw new RejectedExecutionException();
+        }
+        task.run();
+      });
+      var e = assertThrows(ExecutionException.class, () -> constant.getAsync().toCompletableFuture().get());
+      assertTrue(e.getCause() instanceof RejectedExecutionException);
+      assertEquals(42, constant.getAsync().toCompletableFuture().get());
+    }
+
+    @Test
+    public void ofAsyncRejectedConcurrentCallers() throws Exception {
+      var started = new CountDownLatch(1);
+      var released = new CountDownLatch(1);
+      var constant = ComputedConstant.ofAsync(() -> 42, task -> {
+        started.countDown();
+        try {
+          released.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        throw new RejectedExecutionException();
+      });
+      var firstStage = new CompletableFuture<CompletionStage<Integer>>();
+      var thread = new Thread(() -> firstStage.complete(constant.getAsync()));
+      thread.start();
+      started.await();
+      var secondStage = constant.getAsync();
+      released.countDown();
+      thread.join();
+      var e = assertThrows(ExecutionException.class, () -> secondStage.toCompletableFuture().get(1, TimeUnit.SECONDS));
+      assertAll(
+          () -> assertTrue(e.getCause() instanceof RejectedExecutionException),
+          () -> assertSame(firstStage.join(), secondStage)
+      );
+    }
+
+    @Test
+    public void ofAsyncStageCanNotBeCompleted() {
+      var constant = ComputedConstant.ofAsync(() -> 42, __ -> {});
+      var stage = constant.getAsync();
+      assertThrows(UnsupportedOperationException.class, () -> ((CompletableFuture<Integer>) stage).complete(0));
+    }
+  }
+
+  @Nested
+  public class ComputedTimedAccess {
+    private static final CountDownLatch SHIM_STARTED = new CountDownLatch(1);
+    private static final CountDownLatch SHIM_RELEASED = new CountDownLatch(1);
+
+    // what the condenser generates for the static fields of a class
+    public static Object $staticInit$(String fieldName) throws InterruptedException {
+      switch (fieldName) {
+        case "FOO":
+          return "foo";
+        case "NULL":
+          return null;
+        case "SET":
+          throw new AssertionError("bound by trySet");
+        case "SLOW":
+          SHIM_STARTED.countDown();
+          SHIM_RELEASED.await();
+          return "slow";
+        default:
+          throw new AssertionError(fieldName);
+      }
+    }
+
+    private static <V> ComputedConstant<V> shim(String fieldName) {
+      return ComputedConstantMetafactory.ofShim(MethodHandles.lookup(), ComputedTimedAccess.class, fieldName);
+    }
+
+    private static Thread startBinding(ComputedConstant<?> constant) {
+      var thread = new Thread(constant::get);
+      thread.start();
+      return thread;
+    }
+
+    private static <V> ComputedConstant<V> slowConstant(CountDownLatch started, CountDownLatch released, V value) {
+      return ComputedConstant.of(() -> {
+        started.countDown();
+        try {
+          released.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        return value;
+      });
+    }
+
+    @Test
+    public void tryGet() {
+      var constant = ComputedConstant.of(() -> 42);
+      assertEquals(Optional.empty(), constant.tryGet());
+      assertTrue(constant.isUnbound());
+      constant.get();
+      assertEquals(Optional.of(42), constant.tryGet());
+    }
+
+    @Test
+    public void tryGetNullAndError() {
+      var constant = ComputedConstant.of(() -> null);
+      constant.get();
+      assertEquals(Optional.empty(), constant.tryGet());
+      var constant2 = ComputedConstant.of(() -> { throw new IllegalStateException(); });
+      assertThrows(IllegalStateException.class, constant2::get);
+      assertThrows(IllegalStateException.class, constant2::tryGet);
+    }
+
+    @Test
+    public void tryGetWhileBinding() throws InterruptedException {
+      var started = new CountDownLatch(1);
+      var released = new CountDownLatch(1);
+      var constant = slowConstant(started, released, 42);
+      var thread = startBinding(constant);
+      started.await();
+      assertEquals(Optional.empty(), constant.tryGet());
+      released.countDown();
+      thread.join();
+      assertEquals(Optional.of(42), constant.tryGet());
+    }
+
+    @Test
+    public void getTimeout() throws InterruptedException, TimeoutException {
+      var started = new CountDownLatch(1);
+      var released = new CountDownLatch(1);
+      var constant = slowConstant(started, released, 42);
+      var thread = startBinding(constant);
+      started.await();
+      assertThrows(TimeoutException.class, () -> constant.get(Duration.ofMillis(10)));
+      assertThrows(TimeoutException.class, () -> constant.get(Duration.ofMillis(-1)));
+      released.countDown();
+      assertEquals(42, constant.get(Duration.ofDays(1_000_000)));
+      thread.join();
+    }
+
+    @Test
+    public void getTimeoutUnbound() throws InterruptedException, TimeoutException {
+      var constant = ComputedConstant.of(() -> 42);
+      assertEquals(42, constant.get(Duration.ZERO));
+    }
+
+    @Test
+    public void getTimeoutRecursive() {
+      var box = new Object() { ComputedConstant<Integer> constant; };
+      box.constant = ComputedConstant.of(() -> {
+        try {
+          return box.constant.get(Duration.ofSeconds(1));
+        } catch (InterruptedException | TimeoutException e) {
+          throw new AssertionError(e);
+        }
+      });
+      assertThrows(IllegalStateException.class, box.constant::get);
+    }
+
+    @Test
+    public void allImplementations() throws InterruptedException, TimeoutException {
+      var constants = List.<ComputedConstant<String>>of(
+          ComputedConstant.of(() -> "foo"),
+          ComputedConstant.<String>ofList(1, __ -> "foo").get(0),
+          ComputedConstant.ofFoldable(() -> "foo"),
+          ComputedConstant.ofReloadable(() -> "foo"),
+          ComputedConstant.ofRefreshing(() -> "foo", Duration.ofDays(1), Runnable::run),
+          ComputedConstant.ofSoft(() -> "foo"),
+          ComputedConstant.ofAsync(() -> "foo", Runnable::run),
+          shim("FOO"));
+      for(var constant: constants) {
+        assertEquals(Optional.empty(), constant.tryGet(), constant.getClass().getName());
+        assertEquals("foo", constant.get(Duration.ofSeconds(1)), constant.getClass().getName());
+        assertEquals(Optional.of("foo"), constant.tryGet(), constant.getClass().getName());
+        assertEquals("foo", constant.get(), constant.getClass().getName());
+      }
+    }
+
+    @Test
+    public void shimNull() {
+      var constant = shim("NULL");
+      assertNull(constant.get());
+      assertTrue(constant.isBound());
+      assertEquals(Optional.empty(), constant.tryGet());
+    }
+
+    @Test
+    public void shimTimeout() throws InterruptedException, TimeoutException {
+      var constant = ComputedTimedAccess.<String>shim("SLOW");
+      var thread = startBinding(constant);
+      SHIM_STARTED.await();
+      assertTrue(constant.isBinding());
+      assertEquals(Optional.empty(), constant.tryGet());
+      assertThrows(TimeoutException.class, () -> constant.get(Duration.ofMillis(10)));
+      SHIM_RELEASED.countDown();
+      assertEquals("slow", constant.get(Duration.ofSeconds(10)));
+      thread.join();
+    }
+  }
+
+  @Nested
+  public class ComputedTrySet {
+    @Test
+    public void trySet() {
+      var constant = ComputedConstant.<String>of(() -> { throw new AssertionError(); });
+      assertTrue(constant.trySet("foo"));
+      assertTrue(constant.isBound());
+      assertFalse(constant.trySet("bar"));
+      assertEquals("foo", constant.get());
+    }
+
+    @Test
+    public void trySetNull() {
+      var constant = ComputedConstant.<String>of(() -> "foo");
+      assertTrue(constant.trySet(null));
+      assertNull(constant.get());
+    }
+
+    @Test
+    public void trySetAlreadyBound() {
+      var constant = ComputedConstant.of(() -> "foo");
+      constant.get();
+      assertFalse(constant.trySet("bar"));
+      assertEquals("foo", constant.get());
+    }
+
+    @Test
+    public void trySetWhileBinding() throws InterruptedException {
+      var started = new CountDownLatch(1);
+      var released = new CountDownLatch(1);
+      var constant = ComputedConstant.of(() -> {
+        started.countDown();
+        try {
+          released.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        return "foo";
+      });
+      var thread = new Thread(constant::get);
+      thread.start();
+      started.await();
+      assertFalse(constant.trySet("bar"));
+      released.countDown();
+      thread.join();
+      assertEquals("foo", constant.get());
+    }
+
+    @Test
+    public void trySetList() {
+      var list = ComputedConstant.<Integer>ofList(1_000, i -> { throw new AssertionError(); });
+      for(var i = 0; i < list.size(); i++) {
+        assertTrue(list.get(i).trySet(i));
+      }
+      for(var i = 0; i < list.size(); i++) {
+        assertEquals(i, list.get(i).get());
+      }
+    }
+
+    @Test
+    public void trySetAllImplementations() {
+      var constants = List.<ComputedConstant<String>>of(
+          ComputedConstant.of(() -> { throw new AssertionError(); }),
+          ComputedConstant.<String>ofList(1, __ -> { throw new AssertionError(); }).get(0),
+          ComputedConstant.ofFoldable(() -> { throw new AssertionError(); }),
+          ComputedConstant.ofReloadable(() -> { throw new AssertionError(); }),
+          ComputedConstant.ofRefreshing(() -> { throw new AssertionError(); }, Duration.ofDays(1), Runnable::run),
+          ComputedConstant.ofSoft(() -> { throw new AssertionError(); }),
+          ComputedConstant.ofAsync(() -> { throw new AssertionError(); }, Runnable::run),
+          ComputedTimedAccess.shim("SET"));
+      for(var constant: constants) {
+        var name = constant.getClass().getName();
+        assertTrue(constant.trySet("foo"), name);
+        assertFalse(constant.trySet("bar"), name);
+        assertAll(
+            () -> assertTrue(constant.isBound(), name),
+            () -> assertEquals("foo", constant.get(), name),
+            () -> assertEquals(Optional.of("foo"), constant.tryGet(), name)
+        );
+      }
+    }
+
+    @Test
+    public void trySetReloadable() {
+      var constant = ComputedConstant.ofReloadable(() -> "foo");
+      assertTrue(constant.trySet("bar"));
+      assertEquals("bar", constant.get());
+      constant.invalidate();
+      assertEquals("foo", constant.get());
+    }
+  }
+
+  @Nested
+  public class ComputedConstantSnapshot {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void saveAndRestore() throws IOException {
+      var file = directory.resolve("constants.snapshot");
+      var snapshot = ConstantSnapshot.open(file, "v1");
+      var constant = snapshot.of("hello", () -> "hello");
+      var constant2 = snapshot.of("list", () -> new ArrayList<>(List.of(1, 2, 3)));
+      assertEquals("hello", constant.get());
+      assertEquals(List.of(1, 2, 3), constant2.get());
+      snapshot.save();
+
+      var snapshot2 = ConstantSnapshot.open(file, "v1");
+      var restored = snapshot2.<String>of("hello", () -> { throw new AssertionError(); });
+      var restored2 = snapshot2.<ArrayList<Integer>>of("list", () -> { throw new AssertionError(); });
+      assertTrue(restored.isUnbound());
+      assertEquals("hello", restored.get());
+      assertEquals(List.of(1, 2, 3), restored2.get());
+    }
+
+    @Test
+    public void versionMismatch() throws IOException {
+      var file = directory.resolve("constants.snapshot");
+      var snapshot = ConstantSnapshot.open(file, "v1");
+      snapshot.of("key", () -> "old").get();
+      snapshot.save();
+
+      var snapshot2 = ConstantSnapshot.open(file, "v2");
+      assertEquals("new", snapshot2.of("key", () -> "new").get());
+    }
+
+    @Test
+    public void codec() throws IOException {
+      var codec = new ConstantSnapshot.Codec<Integer>() {
+        @Override
+        public byte[] encode(Integer value) {
+          return new byte[] { value.byteValue() };
+        }
+
+        @Override
+        public Integer decode(byte[] data) {
+          return (int) data[0];
+        }
+      };
+      var file = directory.resolve("constants.snapshot");
+      var snapshot = ConstantSnapshot.open(file, "v1");
+      snapshot.of("answer", codec, () -> 42).get();
+      snapshot.save();
+      assertEquals(4 + 4 + 4 + 2 + 4 + (4 + 6 + 4 + 4) + 1, Files.size(file));
+
+      var snapshot2 = ConstantSnapshot.open(file, "v1");
+      assertEquals(42, snapshot2.of("answer", codec, () -> { throw new AssertionError(); }).get());
+    }
+
+    @Test
+    public void unusedEntriesAreKept() throws IOException {
+      var file = directory.resolve("constants.snapshot");
+      var snapshot = ConstantSnapshot.open(file, "v1");
+      snapshot.of("a", () -> "a").get();
+      snapshot.of("b", () -> "b").get();
+      snapshot.save();
+
+      var snapshot2 = ConstantSnapshot.open(file, "v1");
+      snapshot2.of("a", () -> "a");  // not bound
+      snapshot2.of("b", () -> "b").get();
+      snapshot2.save();
+
+      var snapshot3 = ConstantSnapshot.open(file, "v1");
+      assertEquals("a", snapshot3.<String>of("a", () -> { throw new AssertionError(); }).get());
+      assertEquals("b", snapshot3.<String>of("b", () -> { throw new AssertionError(); }).get());
+    }
+
+    @Test
+    public void errorsAndNullAreNotSaved() throws IOException {
+      var file = directory.resolve("constants.snapshot");
+      var snapshot = ConstantSnapshot.open(file, "v1");
+      assertThrows(IllegalStateException.class, snapshot.<String>of("error", () -> { throw new IllegalStateException(); })::get);
+      assertNull(snapshot.<String>of("null", () -> null).get());
+      snapshot.save();
+
+      var snapshot2 = ConstantSnapshot.open(file, "v1");
+      assertEquals("error", snapshot2.of("error", () -> "error").get());
+      assertEquals("null", snapshot2.of("null", () -> "null").get());
+    }
+
+    @Test
+    public void corruptedFile() throws IOException {
+      var file = directory.resolve("constants.snapshot");
+      Files.write(file, new byte[] { 0x43, 0x43, 0x53, 0x31, 0, 0, 0, 1, 0x7F });
+      var snapshot = ConstantSnapshot.open(file, "v1");
+      assertEquals("foo", snapshot.of("foo", () -> "foo").get());
+    }
+
+    @Test
+    public void corruptedStringLength() throws IOException {
+      var file = directory.resolve("constants.snapshot");
+      Files.write(file, new byte[] { 0x43, 0x43, 0x53, 0x31, 0, 0, 0, 1, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0 });
+      var snapshot = ConstantSnapshot.open(file, "v1");
+      assertEquals("foo", snapshot.of("foo", () -> "foo").get());
+    }
+
+    @Test
+    public void sameKey() throws IOException {
+      var snapshot = ConstantSnapshot.open(directory.resolve("constants.snapshot"), "v1");
+      snapshot.of("key", () -> "foo");
+      assertThrows(IllegalStateException.class, () -> snapshot.of("key", () -> "bar"));
+    }
+  }
+
+  @Nested
+  public class ComputedConstantWarmer {
+    private static boolean isBound(Class<?> declaringClass, String fieldName) {
+      return ComputedConstantMetafactory.ofShim(MethodHandles.lookup(), declaringClass, fieldName).isBound();
+    }
+
+    @Test
+    public void bindClass() {
+      var pool = Executors.newFixedThreadPool(2);
+      try {
+        ConstantWarmer.bindClass(MethodHandles.lookup(), Main.class, pool).join();
+      } finally {
+        pool.shutdown();
+      }
+      assertAll(
+          () -> assertTrue(isBound(Main.class, "TEXT")),
+          () -> assertTrue(isBound(Main.class, "LENGTH")),
+          () -> assertEquals("Hello", Main.message())
+      );
+    }
+
+    @Test
+    public void bindPackage() throws IOException {
+      var pool = Executors.newFixedThreadPool(2);
+      try {
+        ConstantWarmer.bindPackage(MethodHandles.lookup(), Main.class.getClassLoader(), Main.class.getPackageName(), pool).join();
+      } finally {
+        pool.shutdown();
+      }
+      assertAll(
+          () -> assertTrue(isBound(Main.class, "TEXT")),
+          () -> assertTrue(isBound(Benchmarks.class, "STATIC_COMPUTED_42")),
+          () -> assertTrue(isBound(Benchmarks.class, "STATIC_COMPUTED_NULL"))
+      );
+    }
+
+    @Test
+    public void bindPackageWithoutIndex() throws IOException {
+      var future = ConstantWarmer.bindPackage(MethodHandles.lookup(), Main.class.getClassLoader(), "com.example.unknown", Runnable::run);
+      assertTrue(future.isDone());
+    }
+
+    @Test
+    public void bindClassNotRewritten() {
+      assertThrows(IllegalArgumentException.class, () -> ConstantWarmer.bindClass(MethodHandles.lookup(), ComputedConstantTest.class, Runnable::run));
+    }
+
+    @Test
+    public void bindClassNotAccessible() {
+      assertThrows(IllegalArgumentException.class, () -> ConstantWarmer.bindClass(MethodHandles.publicLookup(), Main.class, Runnable::run));
+    }
+  }
+
+  @Nested
+  public class ComputedConstantProfile {
+    private static final AtomicInteger PROFILED_CALLS = new AtomicInteger();
+
+    // what the condenser generates for the static fields of a class
+    public static Object $staticInit$(String fieldName) {
+      PROFILED_CALLS.incrementAndGet();
+      switch (fieldName) {
+        case "RECORDED":
+          return "recorded";
+        case "WARMED":
+          return "warmed";
+        case "ALREADY_BOUND":
+          return "already bound";
+        default:
+          throw new AssertionError(fieldName);
+      }
+    }
+
+    private static <V> ComputedConstant<V> shim(String fieldName) {
+      return ComputedConstantMetafactory.ofShim(MethodHandles.lookup(), ComputedConstantProfile.class, fieldName);
+    }
+
+    @Test
+    public void recordAndSave(@TempDir Path directory) throws IOException {
+      var list = ComputedConstant.<Integer>ofList(10, i -> i);
+      ConstantProfile.register("recordAndSave", list);
+      List<String> lines;
+      try {
+        ConstantProfile.startRecording();
+        try {
+          assertEquals("recorded", shim("RECORDED").get());
+        } finally {
+          ConstantProfile.stopRecording();
+        }
+        list.get(7).get();
+        list.get(3).get();
+        var profile = directory.resolve("profile");
+        ConstantProfile.save(profile);
+        lines = Files.readAllLines(profile);
+      } finally {
+        ConstantProfile.unregister("recordAndSave");
+      }
+      assertAll(
+          () -> assertTrue(lines.contains("field " + ComputedConstantProfile.class.getName() + " RECORDED")),
+          () -> assertTrue(lines.contains("list 3 recordAndSave")),
+          () -> assertTrue(lines.contains("list 7 recordAndSave")),
+          () -> assertFalse(lines.contains("list 0 recordAndSave")),
+          () -> assertTrue(lines.indexOf("list 3 recordAndSave") < lines.indexOf("list 7 recordAndSave"))
+      );
+    }
+
+    @Test
+    public void recordFieldOnce(@TempDir Path directory) throws IOException {
+      ConstantProfile.startRecording();
+      try {
+        ConstantProfile.recordBinding(ComputedConstantProfile.class, "TWICE");
+        ConstantProfile.recordBinding(ComputedConstantProfile.class, "TWICE");
+      } finally {
+        ConstantProfile.stopRecording();
+      }
+      var profile = directory.resolve("profile");
+      ConstantProfile.save(profile);
+      var field = "field " + ComputedConstantProfile.class.getName() + " TWICE";
+      assertEquals(1, Files.readAllLines(profile).stream().filter(field::equals).count());
+    }
+
+    @Test
+    public void prewarm(@TempDir Path directory) throws IOException {
+      var calls = new AtomicInteger();
+      var list = ComputedConstant.<Integer>ofList(10, i -> {
+        calls.incrementAndGet();
+        return i;
+      });
+      ConstantProfile.register("prewarm", list);
+      var profile = directory.resolve("profile");
+      Files.write(profile, List.of(
+          "field " + ComputedConstantProfile.class.getName() + " WARMED",
+          "list 5 prewarm",
+          "list 5 prewarm",
+          "list 42 prewarm",
+          "list 1 unknown",
+          "field com.example.Unknown FOO",
+          "garbage"));
+      int count;
+      try {
+        count = ConstantProfile.prewarm(MethodHandles.lookup(), profile, Runnable::run).join();
+      } finally {
+        ConstantProfile.unregister("prewarm");
+      }
+      var constant = shim("WARMED");
+      assertAll(
+          () -> assertEquals(2, count),
+          () -> assertTrue(constant.isBound()),
+          () -> assertEquals("warmed", constant.get()),
+          () -> assertTrue(list.get(5).isBound()),
+          () -> assertEquals(5, list.get(5).get()),
+          () -> assertTrue(list.get(4).isUnbound()),
+          () -> assertEquals(1, calls.get())
+      );
+    }
+
+    @Test
+    public void prewarmSkipsBoundConstants(@TempDir Path directory) throws IOException {
+      assertEquals("already bound", shim("ALREADY_BOUND").get());
+      var calls = PROFILED_CALLS.get();
+      var profile = directory.resolve("profile");
+      Files.write(profile, List.of("field " + ComputedConstantProfile.class.getName() + " ALREADY_BOUND"));
+      assertAll(
+          () -> assertEquals(0, ConstantProfile.prewarm(MethodHandles.lookup(), profile, Runnable::run).join()),
+          () -> assertEquals(calls, PROFILED_CALLS.get())
+      );
+    }
+
+    @Test
+    public void registerTwice() {
+      var list = ComputedConstant.<Integer>ofList(1, i -> i);
+      ConstantProfile.register("registerTwice", list);
+      try {
+        assertThrows(IllegalStateException.class, () -> ConstantProfile.register("registerTwice", list));
+      } finally {
+        ConstantProfile.unregister("registerTwice");
+      }
+    }
+
+    @Test
+    public void unregister() {
+      var list = ComputedConstant.<Integer>ofList(1, i -> i);
+      ConstantProfile.register("unregister", list);
+      ConstantProfile.unregister("unregister");
+      ConstantProfile.unregister("unregister");
+      ConstantProfile.register("unregister", list);
+      ConstantProfile.unregister("unregister");
+    }
+
+    @Test
+    public void prewarmMissingProfile(@TempDir Path directory) {
+      assertThrows(IOException.class, () -> ConstantProfile.prewarm(MethodHandles.lookup(), directory.resolve("missing"), Runnable::run));
+    }
+  }
+
+  @Nested
+  public class ComputedLazyList {
+    @Test
+    public void ofLazyList() {
+      var count = 1_000;
+      var list = ComputedConstant.ofLazyList(count, i -> i);
+      assertEquals(count, list.size());
+      for(var i = 0; i < count; i++) {
+        assertEquals(i, list.get(i));
+      }
+      assertTrue(list instanceof RandomAccess);
+    }
+
+    @Test
+    public void ofLazyListBindOnDemand() {
+      var calls = new AtomicIntegerArray(10);
+      var list = ComputedConstant.ofLazyList(10, i -> {
+        calls.incrementAndGet(i);
+        return "" + i;
+      });
+      assertEquals("3", list.get(3));
+      assertEquals("3", list.get(3));
+      assertAll(
+          () -> assertEquals(1, calls.get(3)),
+          () -> assertEquals(0, calls.get(2)),
+          () -> assertEquals(0, calls.get(4))
+      );
+    }
+
+    @Test
+    public void ofLazyListNullAndFail() {
+      var list = ComputedConstant.ofLazyList(2, i -> {
+        if (i == 1) {
+          throw new IllegalStateException();
+        }
+        return null;
+      });
+      assertNull(list.get(0));
+      var e1 = assertThrows(IllegalStateException.class, () -> list.get(1));
+      var e2 = assertThrows(IllegalStateException.class, () -> list.get(1));
+      assertSame(e1, e2);
+    }
+
+    @Test
+    public void ofLazyListOutOfBounds() {
+      var list = ComputedConstant.ofLazyList(10, i -> i);
+      assertAll(
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1)),
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> list.get(10))
+      );
+    }
+
+    @Test
+    public void ofLazyListNegativeSize() {
+      assertAll(
+          () -> assertThrows(IllegalArgumentException.class, () -> ComputedConstant.ofLazyList(-1, i -> i)),
+          () -> assertThrows(IllegalArgumentException.class, () -> ComputedConstant.ofList(-1, i -> i))
+      );
+    }
+
+    @Test
+    public void ofLazyListUnmodifiable() {
+      var list = ComputedConstant.ofLazyList(10, i -> i);
+      assertThrows(UnsupportedOperationException.class, () -> list.set(0, 42));
+    }
+
+    @Test
+    public void ofListSharesStates() {
+      var list = ComputedConstant.ofList(10, i -> i);
+      assertEquals(5, list.get(5).get());
+      assertAll(
+          () -> assertTrue(list.get(5).isBound()),
+          () -> assertTrue(list.get(4).isUnbound()),
+          () -> assertEquals(list.get(5), list.get(5))
+      );
+    }
+  }
+
+  @Nested
+  public class ComputedPagedList {
+    @Test
+    public void ofPagedList() {
+      var count = 10_000;
+      var list = ComputedConstant.ofPagedList(count, i -> i);
+      assertEquals(count, list.size());
+      for(var i = 0; i < count; i++) {
+        assertEquals(i, list.get(i));
+      }
+    }
+
+    @Test
+    public void ofPagedListHuge() {
+      var count = 100_000_000;
+      var list = (PagedLazyComputedList<Integer>) ComputedConstant.ofPagedList(count, i -> i * 2);
+      assertEquals(0, list.pageCount());
+      assertEquals(2 * 50_000_000, list.get(50_000_000));
+      assertEquals(2 * 50_000_001, list.get(50_000_001));
+      assertEquals(2 * (count - 1), list.get(count - 1));
+      assertEquals(2, list.pageCount());
+    }
+
+    @Test
+    public void ofPagedListNullAndFail() {
+      var list = ComputedConstant.ofPagedList(3_000, i -> {
+        if (i == 2_000) {
+          throw new IllegalStateException();
+        }
+        return null;
+      });
+      assertNull(list.get(1_000));
+      var e1 = assertThrows(IllegalStateException.class, () -> list.get(2_000));
+      var e2 = assertThrows(IllegalStateException.class, () -> list.get(2_000));
+      assertSame(e1, e2);
+    }
+
+    @Test
+    public void ofPagedListOutOfBounds() {
+      var list = ComputedConstant.ofPagedList(10, i -> i);
+      assertAll(
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1)),
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> list.get(10))
+      );
+    }
+
+    @Test
+    public void ofPagedListBindOnce() throws InterruptedException {
+      var count = 5_000;
+      var calls = new AtomicIntegerArray(count);
+      var list = ComputedConstant.ofPagedList(count, i -> {
+        calls.incrementAndGet(i);
+        return i;
+      });
+      var threads = IntStream.range(0, 8)
+          .mapToObj(__ -> new Thread(() -> {
+            for(var i = 0; i < count; i++) {
+              assertEquals(i, list.get(i));
+            }
+          }))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      for(var i = 0; i < count; i++) {
+        assertEquals(1, calls.get(i));
+      }
+    }
+  }
+
+  @Nested
+  public class ComputedChunkedList {
+    @Test
+    public void ofChunkedList() {
+      var count = 1_000;
+      var list = ComputedConstant.ofChunkedList(count, 64, (from, to) -> IntStream.range(from, to).boxed().toList());
+      assertEquals(count, list.size());
+      for(var i = 0; i < count; i++) {
+        assertEquals(i, list.get(i));
+      }
+    }
+
+    @Test
+    public void ofChunkedListOneCallPerChunk() {
+      var ranges = new ArrayList<String>();
+      var list = ComputedConstant.ofChunkedList(100, 64, (from, to) -> {
+        ranges.add(from + ".." + to);
+        return IntStream.range(from, to).mapToObj(i -> "" + i).toList();
+      });
+      assertEquals("70", list.get(70));
+      assertEquals("99", list.get(99));
+      assertEquals("64", list.get(64));
+      assertEquals(List.of("64..100"), ranges);
+      assertEquals("0", list.get(0));
+      assertEquals(List.of("64..100", "0..64"), ranges);
+    }
+
+    @Test
+    public void ofChunkedListFail() {
+      var list = ComputedConstant.ofChunkedList(10, 5, (from, to) -> {
+        if (from == 5) {
+          throw new IllegalStateException();
+        }
+        return Collections.nCopies(to - from, null);
+      });
+      assertNull(list.get(0));
+      var e1 = assertThrows(IllegalStateException.class, () -> list.get(5));
+      var e2 = assertThrows(IllegalStateException.class, () -> list.get(9));
+      assertSame(e1, e2);
+    }
+
+    @Test
+    public void ofChunkedListWrongSize() {
+      var list = ComputedConstant.ofChunkedList(10, 5, (from, to) -> List.of(42));
+      assertThrows(IllegalStateException.class, () -> list.get(0));
+    }
+
+    @Test
+    public void ofChunkedListBindOnce() throws InterruptedException {
+      var count = 1_000;
+      var calls = new AtomicInteger();
+      var list = ComputedConstant.ofChunkedList(count, 10, (from, to) -> {
+        calls.incrementAndGet();
+        return IntStream.range(from, to).boxed().toList();
+      });
+      var threads = IntStream.range(0, 8)
+          .mapToObj(__ -> new Thread(() -> {
+            for(var i = 0; i < count; i++) {
+              assertEquals(i, list.get(i));
+            }
+          }))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      assertEquals(100, calls.get());
+    }
+  }
+
+  @Nested
+  public class ComputedIntFunction {
+    @Test
+    public void ofIntFunction() {
+      var function = ComputedConstant.ofIntFunction(i -> i * 2);
+      for(var i = 0; i < 10_000; i++) {
+        assertEquals(i * 2, function.apply(i));
+      }
+    }
+
+    @Test
+    public void ofIntFunctionGrowOnDemand() {
+      var function = (GrowableLazyIntFunction<Integer>) ComputedConstant.ofIntFunction(i -> i);
+      assertEquals(0, function.segmentCount());
+      assertEquals(0, function.apply(0));
+      assertEquals(15, function.apply(15));
+      assertEquals(1, function.segmentCount());
+      assertEquals(16, function.apply(16));
+      assertEquals(2, function.segmentCount());
+      assertEquals(1_000_000, function.apply(1_000_000));
+      assertEquals(3, function.segmentCount());
+    }
+
+    @Test
+    public void ofIntFunctionBindOnce() throws InterruptedException {
+      var count = 5_000;
+      var calls = new AtomicIntegerArray(count);
+      var function = ComputedConstant.ofIntFunction(i -> {
+        calls.incrementAndGet(i);
+        return i;
+      });
+      var threads = IntStream.range(0, 8)
+          .mapToObj(__ -> new Thread(() -> {
+            for(var i = count; --i >= 0;) {
+              assertEquals(i, function.apply(i));
+            }
+          }))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      for(var i = 0; i < count; i++) {
+        assertEquals(1, calls.get(i));
+      }
+    }
+
+    @Test
+    public void ofIntFunctionNullAndFail() {
+      var function = ComputedConstant.ofIntFunction(i -> {
+        if (i == 100) {
+          throw new IllegalStateException();
+        }
+        return null;
+      });
+      assertNull(function.apply(99));
+      var e1 = assertThrows(IllegalStateException.class, () -> function.apply(100));
+      var e2 = assertThrows(IllegalStateException.class, () -> function.apply(100));
+      assertSame(e1, e2);
+    }
+
+    @Test
+    public void ofIntFunctionOutOfBounds() {
+      var function = ComputedConstant.ofIntFunction(i -> i);
+      assertAll(
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> function.apply(-1)),
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> function.apply(Integer.MAX_VALUE))
+      );
+    }
+  }
+
+  @Nested
+  public class ComputedMap {
+    @Test
+    public void ofMap() {
+      var keys = IntStream.range(0, 10_000).mapToObj(i -> "key" + i).collect(Collectors.toSet());
+      var map = ComputedConstant.ofMap(keys, String::length);
+      assertEquals(keys.size(), map.size());
+      for(var key: keys) {
+        assertTrue(map.containsKey(key));
+        assertEquals(key.length(), map.get(key));
+      }
+    }
+
+    @Test
+    public void ofMapBindOnDemand() {
+      var calls = new ConcurrentHashMap<String, Integer>();
+      var map = ComputedConstant.ofMap(Set.of("foo", "bar", "baz"), key -> {
+        calls.merge(key, 1, Integer::sum);
+        return key.toUpperCase(Locale.ROOT);
+      });
+      assertEquals("BAR", map.get("bar"));
+      assertEquals("BAR", map.get("bar"));
+      assertEquals(Map.of("bar", 1), calls);
+    }
+
+    @Test
+    public void ofMapUnknownKey() {
+      var map = ComputedConstant.ofMap(Set.of("foo", "bar"), key -> 42);
+      assertAll(
+          () -> assertNull(map.get("baz")),
+          () -> assertNull(map.get(null)),
+          () -> assertNull(map.get(42)),
+          () -> assertFalse(map.containsKey("baz"))
+      );
+    }
+
+    @Test
+    public void ofMapKeysDoNotCompute() {
+      var calls = new AtomicInteger();
+      var map = ComputedConstant.<String, Integer>ofMap(Set.of("foo", "bar", "baz"), key -> {
+        calls.incrementAndGet();
+        throw new IllegalStateException();
+      });
+      assertAll(
+          () -> assertEquals(Set.of("foo", "bar", "baz"), new HashSet<>(map.keySet())),
+          () -> assertTrue(map.keySet().contains("bar")),
+          () -> assertEquals(Set.of("foo", "bar", "baz"), map.entrySet().stream().map(Map.Entry::getKey).collect(Collectors.toSet())),
+          () -> assertEquals(0, calls.get()),
+          () -> assertThrows(IllegalStateException.class, () -> map.entrySet().iterator().next().getValue())
+      );
+    }
+
+    @Test
+    public void ofMapNullKey() {
+      var keys = new HashSet<String>();
+      keys.add("foo");
+      keys.add(null);
+      var e = assertThrows(NullPointerException.class, () -> ComputedConstant.ofMap(keys, key -> 42));
+      assertEquals("null key", e.getMessage());
+    }
+
+    @Test
+    public void ofMapSameHashCode() {
+      assertEquals("Aa".hashCode(), "BB".hashCode());
+      var map = ComputedConstant.ofMap(Set.of("Aa", "BB", "C#"), key -> key + "!");
+      assertAll(
+          () -> assertEquals("Aa!", map.get("Aa")),
+          () -> assertEquals("BB!", map.get("BB")),
+          () -> assertEquals("C#!", map.get("C#")),
+          () -> assertEquals(Map.of("Aa", "Aa!", "BB", "BB!", "C#", "C#!"), map)
+      );
+    }
+
+    @Test
+    public void ofMapNullAndFail() {
+      var map = ComputedConstant.ofMap(Set.of("foo", "bar"), key -> {
+        if (key.equals("bar")) {
+          throw new IllegalStateException();
+        }
+        return null;
+      });
+      assertNull(map.get("foo"));
+      assertTrue(map.containsKey("foo"));
+      var e1 = assertThrows(IllegalStateException.class, () -> map.get("bar"));
+      var e2 = assertThrows(IllegalStateException.class, () -> map.get("bar"));
+      assertSame(e1, e2);
+    }
+
+    @Test
+    public void ofMapEmpty() {
+      assertEquals(Map.of(), ComputedConstant.ofMap(Set.of(), key -> key));
+    }
+
+    @Test
+    public void ofMapUnmodifiable() {
+      var map = ComputedConstant.ofMap(Set.of("foo"), key -> 42);
+      assertThrows(UnsupportedOperationException.class, () -> map.put("foo", 43));
+    }
+  }
+
+  @Nested
+  public class ComputedEnum {
+    enum Status { ACTIVE, SUSPENDED, DELETED { @Override public String toString() { return "deleted"; } } }
+
+    @Test
+    public void ofEnum() {
+      var map = ComputedConstant.ofEnum(Status.class, Status::toString);
+      assertAll(
+          () -> assertEquals(3, map.size()),
+          () -> assertEquals("ACTIVE", map.get(Status.ACTIVE)),
+          () -> assertEquals("SUSPENDED", map.get(Status.SUSPENDED)),
+          () -> assertEquals("deleted", map.get(Status.DELETED)),
+          () -> assertEquals(Map.of(Status.ACTIVE, "ACTIVE", Status.SUSPENDED, "SUSPENDED", Status.DELETED, "deleted"), map)
+      );
+    }
+
+    @Test
+    public void ofEnumBindOnDemand() {
+      var calls = new AtomicIntegerArray(3);
+      var map = ComputedConstant.ofEnum(Status.class, status -> calls.incrementAndGet(status.ordinal()));
+      assertEquals(1, map.get(Status.SUSPENDED));
+      assertEquals(1, map.get(Status.SUSPENDED));
+      assertAll(
+          () -> assertEquals(0, calls.get(0)),
+          () -> assertEquals(1, calls.get(1)),
+          () -> assertEquals(0, calls.get(2))
+      );
+    }
+
+    @Test
+    public void ofEnumKeysDoNotCompute() {
+      var calls = new AtomicInteger();
+      var map = ComputedConstant.<Status, Integer>ofEnum(Status.class, status -> {
+        calls.incrementAndGet();
+        throw new IllegalStateException();
+      });
+      assertAll(
+          () -> assertEquals(List.of(Status.values()), List.copyOf(map.keySet())),
+          () -> assertTrue(map.keySet().contains(Status.ACTIVE)),
+          () -> assertEquals(List.of(Status.values()), map.entrySet().stream().map(Map.Entry::getKey).toList()),
+          () -> assertEquals(0, calls.get()),
+          () -> assertThrows(IllegalStateException.class, () -> map.entrySet().iterator().next().getValue())
+      );
+    }
+
+    @Test
+    public void ofEnumUnknownKey() {
+      var map = ComputedConstant.ofEnum(Status.class, status -> 42);
+      assertAll(
+          () -> assertNull(map.get(null)),
+          () -> assertNull(map.get("ACTIVE")),
+          () -> assertNull(map.get(Thread.State.NEW)),
+          () -> assertTrue(map.containsKey(Status.DELETED)),
+          () -> assertFalse(map.containsKey(Thread.State.NEW))
+      );
+    }
+
+    @Test
+    public void ofEnumNullAndFail() {
+      var map = ComputedConstant.ofEnum(Status.class, status -> {
+        if (status == Status.DELETED) {
+          throw new IllegalStateException();
+        }
+        return null;
+      });
+      assertNull(map.get(Status.ACTIVE));
+      var e1 = assertThrows(IllegalStateException.class, () -> map.get(Status.DELETED));
+      var e2 = assertThrows(IllegalStateException.class, () -> map.get(Status.DELETED));
+      assertSame(e1, e2);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void ofEnumNotAnEnum() {
+      assertThrows(IllegalArgumentException.class, () -> ComputedConstant.ofEnum((Class) String.class, x -> x));
+    }
+  }
+
+  @Nested
+  public class ComputedBoundedFunction {
+    @Test
+    public void ofBoundedFunction() {
+      var function = ComputedConstant.<String, Integer>ofBoundedFunction(100, String::length);
+      assertEquals(3, function.apply("foo"));
+      assertEquals(3, function.apply("foo"));
+      assertEquals(6, function.apply("foobar"));
+      assertAll(
+          () -> assertEquals(2, function.size()),
+          () -> assertEquals(1, function.hitCount()),
+          () -> assertEquals(2, function.missCount()),
+          () -> assertEquals(0, function.evictionCount())
+      );
+    }
+
+    @Test
+    public void ofBoundedFunctionEviction() {
+      var function = ComputedConstant.<Integer, Integer>ofBoundedFunction(100, i -> i);
+      for(var i = 0; i < 1_000; i++) {
+        assertEquals(i, function.apply(i));
+      }
+      assertAll(
+          () -> assertEquals(100, function.size()),
+          () -> assertEquals(900, function.evictionCount()),
+          () -> assertEquals(1_000, function.missCount())
+      );
+    }
+
+    @Test
+    public void ofBoundedFunctionSizeOne() {
+      var function = ComputedConstant.<Integer, Integer>ofBoundedFunction(1, i -> i);
+      for(var i = 0; i < 10; i++) {
+        assertEquals(i, function.apply(i));
+      }
+      assertEquals(1, function.size());
+    }
+
+    @Test
+    public void ofBoundedFunctionFrequentKeysSurvive() {
+      var calls = new ConcurrentHashMap<Integer, Integer>();
+      var function = ComputedConstant.<Integer, Integer>ofBoundedFunction(100, i -> {
+        calls.merge(i, 1, Integer::sum);
+        return i;
+      });
+      for(var round = 0; round < 10; round++) {
+        for(var i = 0; i < 50; i++) {
+          function.apply(i);
+        }
+      }
+      // a scan of one-hit keys should not evict the frequently used keys
+      for(var i = 1_000; i < 2_000; i++) {
+        function.apply(i);
+      }
+      for(var i = 0; i < 50; i++) {
+        function.apply(i);
+        assertEquals(1, calls.get(i));
+      }
+    }
+
+    @Test
+    public void ofBoundedFunctionComputeOnce() throws InterruptedException {
+      var calls = new AtomicInteger();
+      var function = ComputedConstant.<String, Integer>ofBoundedFunction(10, key -> {
+        calls.incrementAndGet();
+        try {
+          Thread.sleep(10);
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        return key.length();
+      });
+      var threads = IntStream.range(0, 8)
+          .mapToObj(__ -> new Thread(() -> assertEquals(3, function.apply("foo"))))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void ofBoundedFunctionFail() {
+      var function = ComputedConstant.<String, Integer>ofBoundedFunction(10, key -> { throw new IllegalStateException(); });
+      var e1 = assertThrows(IllegalStateException.class, () -> function.apply("foo"));
+      var e2 = assertThrows(IllegalStateException.class, () -> function.apply("foo"));
+      assertSame(e1, e2);
+    }
+  }
+
+  @Nested
+  public class ComputedPrimitiveConstants {
+    @Test
+    public void getAsInt() {
+      var constant = ComputedIntConstant.of(() -> 42);
+      assertEquals(42, constant.getAsInt());
+      assertAll(
+          () -> assertFalse(constant.isUnbound()),
+          () -> assertFalse(constant.isBinding()),
+          () -> assertTrue(constant.isBound()),
+          () -> assertFalse(constant.isError())
+      );
+    }
+
+    @Test
+    public void getAsLong() {
+      var constant = ComputedLongConstant.of(() -> 42L);
+      assertEquals(42L, constant.getAsLong());
+      assertTrue(constant.isBound());
+    }
+
+    @Test
+    public void getAsDouble() {
+      var constant = ComputedDoubleConstant.of(() -> 42.0);
+      assertEquals(42.0, constant.getAsDouble());
+      assertTrue(constant.isBound());
+    }
+
+    @Test
+    public void getAsIntFail() {
+      var constant = ComputedIntConstant.of(() -> { throw null; });
+      var e1 = assertThrows(NullPointerException.class, constant::getAsInt);
+      var e2 = assertThrows(NullPointerException.class, constant::getAsInt);
+      assertSame(e1, e2);
+      assertAll(
+          () -> assertFalse(constant.isUnbound()),
+          () -> assertFalse(constant.isBinding()),
+          () -> assertTrue(constant.isBound()),
+          () -> assertTrue(constant.isError())
+      );
+    }
+
+    @Test
+    public void orElse() {
+      var constant = ComputedLongConstant.of(() -> { throw null; });
+      assertEquals(42L, constant.orElse(42L));
+      assertTrue(constant.isError());
+    }
+
+    @Test
+    public void orElseThrow() {
+      var constant = ComputedDoubleConstant.of(() -> { throw null; });
+      assertThrows(IllegalStateException.class, () -> constant.orElseThrow(IllegalStateException::new));
+      assertTrue(constant.isError());
+    }
+
+    @Test
+    public void defaultState() {
+      var constant = ComputedIntConstant.of(() -> 42);
+      assertAll(
+          () -> assertTrue(constant.isUnbound()),
+          () -> assertFalse(constant.isBinding()),
+          () -> assertFalse(constant.isBound()),
+          () -> assertFalse(constant.isError())
+      );
+    }
+  }
+
+  @Nested
+  public class ComputedBindAll {
+    @Test
+    public void bindAll() {
+      var counter = new AtomicInteger();
+      var list = ComputedConstant.ofList(10_000, i -> {
+        counter.incrementAndGet();
+        return i;
+      });
+      var statistics = ComputedConstant.bindAll(list, ForkJoinPool.commonPool());
+      assertAll(
+          () -> assertEquals(10_000, statistics.bound()),
+          () -> assertEquals(0, statistics.errors()),
+          () -> assertEquals(0, statistics.skipped()),
+          () -> assertFalse(statistics.elapsed().isNegative()),
+          () -> assertEquals(10_000, counter.get()),
+          () -> assertTrue(list.stream().allMatch(ComputedConstant::isBound))
+      );
+      for(var i = 0; i < list.size(); i++) {
+        assertEquals(i, list.get(i).get());
+      }
+    }
+
+    @Test
+    public void bindAllSkipAndErrors() {
+      var list = ComputedConstant.<Integer>ofList(1_000, i -> {
+        if (i % 10 == 0) {
+          throw new IllegalStateException();
+        }
+        return i;
+      });
+      for(var i = 1; i < 100; i += 10) {
+        list.get(i).get();
+      }
+      var statistics = ComputedConstant.bindAll(list, ForkJoinPool.commonPool());
+      assertAll(
+          () -> assertEquals(890, statistics.bound()),
+          () -> assertEquals(100, statistics.errors()),
+          () -> assertEquals(10, statistics.skipped()),
+          () -> assertTrue(list.get(0).isError()),
+          () -> assertThrows(IllegalStateException.class, () -> list.get(10).get())
+      );
+      var statistics2 = ComputedConstant.bindAll(list, ForkJoinPool.commonPool());
+      assertEquals(1_000, statistics2.skipped());
+    }
+
+    @Test
+    public void bindAllSkipBinding() throws InterruptedException {
+      var started = new CountDownLatch(1);
+      var released = new CountDownLatch(1);
+      var list = ComputedConstant.<Integer>ofList(10, i -> {
+        if (i == 5) {
+          started.countDown();
+          try {
+            released.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+        }
+        return i;
+      });
+      var thread = new Thread(() -> list.get(5).get());
+      thread.start();
+      started.await();
+      try {
+        var statistics = ComputedConstant.bindAll(list, ForkJoinPool.commonPool());
+        assertAll(
+            () -> assertEquals(9, statistics.bound()),
+            () -> assertEquals(1, statistics.skipped())
+        );
+      } finally {
+        released.countDown();
+      }
+      thread.join();
+    }
+
+    @Test
+    public void bindAllAnyList() {
+      var list = List.of(ComputedConstant.of(() -> 1), ComputedConstant.<Integer>of(() -> { throw null; }), ComputedConstant.of(() -> 3));
+      list.get(2).get();
+      var statistics = ComputedConstant.bindAll(list, ForkJoinPool.commonPool());
+      assertAll(
+          () -> assertEquals(1, statistics.bound()),
+          () -> assertEquals(1, statistics.errors()),
+          () -> assertEquals(1, statistics.skipped())
+      );
+    }
+
+    @Test
+    public void bindAllProgress() {
+      var list = ComputedConstant.ofList(1_000, i -> i);
+      var progress = new ConcurrentLinkedQueue<Integer>();
+      var pool = new ForkJoinPool(4);
+      try {
+        ComputedConstant.bindAll(list, pool, progress::add);
+      } finally {
+        pool.shutdown();
+      }
+      assertFalse(progress.isEmpty());
+      assertEquals(1_000, Collections.max(progress));
+    }
+
+    @Test
+    public void bindAllEmpty() {
+      var statistics = ComputedConstant.bindAll(ComputedConstant.<Integer>ofList(0, i -> i), ForkJoinPool.commonPool());
+      assertEquals(0, statistics.bound() + statistics.errors() + statistics.skipped());
+    }
+  }
+
+  @Nested
+  public class ComputedConstantList {
+    @Test
+    public void ofList() {
+      var count = 1_000;
+      var list = ComputedConstant.ofList(count, i -> i);
+      for(var i = 0; i < count; i++) {
+        assertEquals(i, list.get(i).get());
+      }
+    }
+
+    @Test
+    public void ofListBindOnce() throws InterruptedException {
+      var count = 1_000;
+      var calls = new AtomicIntegerArray(count);
+      var list = ComputedConstant.ofList(count, i -> {
+        calls.incrementAndGet(i);
+        return i;
+      });
+      var threads = IntStream.range(0, 8)
+          .mapToObj(__ -> new Thread(() -> {
+            for(var i = 0; i < count; i++) {
+              assertEquals(i, list.get(i).get());
+            }
+          }))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      for(var i = 0; i < count; i++) {
+        assertEquals(1, calls.get(i));
+      }
+    }
+  }
+
+  @Nested
+  public class ComputedPrimitiveList {
+    @Test
+    public void ofIntList() {
+      var count = 1_000;
+      var list = ComputedConstant.ofIntList(count, i -> i * 2);
+      assertEquals(count, list.size());
+      for(var i = 0; i < count; i++) {
+        assertTrue(list.isUnbound(i));
+        assertEquals(i * 2, list.getAsInt(i));
+        assertTrue(list.isBound(i));
+      }
+    }
+
+    @Test
+    public void ofLongList() {
+      var list = ComputedConstant.ofLongList(100, i -> 1L << 40 | i);
+      for(var i = 0; i < list.size(); i++) {
+        assertEquals(1L << 40 | i, list.getAsLong(i));
+      }
+    }
+
+    @Test
+    public void ofDoubleList() {
+      var list = ComputedConstant.ofDoubleList(100, i -> i / 2.0);
+      for(var i = 0; i < list.size(); i++) {
+        assertEquals(i / 2.0, list.getAsDouble(i));
+      }
+    }
+
+    @Test
+    public void ofIntListFail() {
+      var list = ComputedConstant.ofIntList(40, i -> {
+        if (i == 33) {
+          throw new IllegalStateException();
+        }
+        return i;
+      });
+      var e1 = assertThrows(IllegalStateException.class, () -> list.getAsInt(33));
+      var e2 = assertThrows(IllegalStateException.class, () -> list.getAsInt(33));
+      assertSame(e1, e2);
+      assertAll(
+          () -> assertTrue(list.isError(33)),
+          () -> assertTrue(list.isBound(33)),
+          () -> assertEquals(-1, list.orElse(33, -1)),
+          () -> assertThrows(ArithmeticException.class, () -> list.orElseThrow(33, ArithmeticException::new)),
+          () -> assertTrue(list.isUnbound(32)),
+          () -> assertTrue(list.isUnbound(34)),
+          () -> assertEquals(34, list.getAsInt(34))
+      );
+    }
+
+    @Test
+    public void ofIntListOutOfBounds() {
+      var list = ComputedConstant.ofIntList(10, i -> i);
+      assertAll(
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> list.getAsInt(-1)),
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> list.getAsInt(10))
+      );
+    }
+
+    @Test
+    public void ofIntListRecursiveBinding() {
+      var box = new Object() { ComputedIntList list; };
+      box.list = ComputedConstant.ofIntList(10, i -> box.list.getAsInt(i) + 1);
+      assertThrows(IllegalStateException.class, () -> box.list.getAsInt(3));
+      assertAll(
+          () -> assertTrue(box.list.isError(3)),
+          () -> assertTrue(box.list.isUnbound(4))
+      );
+    }
+
+    @Test
+    public void ofIntListWaiterSeesError() throws InterruptedException {
+      var started = new CountDownLatch(1);
+      var list = ComputedConstant.ofIntList(64, i -> {
+        if (i != 42) {
+          return i;
+        }
+        started.countDown();
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        throw new IllegalStateException();
+      });
+      var thread = new Thread(() -> assertThrows(IllegalStateException.class, () -> list.getAsInt(42)));
+      thread.start();
+      started.await();
+      assertTrue(list.isBinding(42));
+      assertEquals(41, list.getAsInt(41));
+      assertThrows(IllegalStateException.class, () -> list.getAsInt(42));
+      thread.join();
+      assertAll(
+          () -> assertTrue(list.isError(42)),
+          () -> assertFalse(list.isBinding(42))
+      );
+    }
+
+    @Test
+    public void ofIntListBindOnce() throws InterruptedException {
+      var count = 1_000;
+      var calls = new AtomicIntegerArray(count);
+      var list = ComputedConstant.ofIntList(count, i -> {
+        calls.incrementAndGet(i);
+        return i;
+      });
+      var threads = IntStream.range(0, 8)
+          .mapToObj(__ -> new Thread(() -> {
+            for(var i = 0; i < count; i++) {
+              assertEquals(i, list.getAsInt(i));
+            }
+          }))
+          .toList();
+      for(var thread : threads) {
+        thread.start();
+      }
+      for(var thread : threads) {
+        thread.join();
+      }
+      for(var i = 0; i < count; i++) {
+        assertEquals(1, calls.get(i));
       }
     }
   }
-}
\ No newline at end of file
+}